@@ -0,0 +1,35 @@
+package com.detextion.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (e.g. a benchmark regex, -p, -f),
+ * but always writes JSON results — by default to {@code jmh-result.json}, or wherever {@code -rff}
+ * points — so runs can be archived and compared release over release.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        String resultFile = cli.getResult().orElse("jmh-result.json");
+
+        Path parent = Path.of(resultFile).toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        Options options = new OptionsBuilder()
+                .parent(cli)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.detextion.bench;
+
+import com.detextion.graph.ForceLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** One physics step of the document graph layout, which runs every frame while the graph settles. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForceLayoutBenchmark {
+
+    private static final double WIDTH = 1600, HEIGHT = 1000;
+
+    @Param({ "50", "200", "1000" })
+    public int nodes;
+
+    /** Average edges per node (documents sharing keywords). */
+    @Param("4")
+    public int degree;
+
+    @Param("42")
+    public long seed;
+
+    private ForceLayout layout;
+
+    /** Fresh random layout each iteration, so every iteration measures an unsettled graph. */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(seed);
+        layout = new ForceLayout();
+        ForceLayout.Body[] bodies = new ForceLayout.Body[nodes];
+        for (int i = 0; i < nodes; i++)
+            bodies[i] = layout.addBody("doc-" + i, 80 + random.nextDouble() * (WIDTH - 160), 80 + random.nextDouble() * (HEIGHT - 160));
+        for (int e = 0; e < nodes * degree / 2; e++) {
+            int a = random.nextInt(nodes), b = random.nextInt(nodes);
+            if (a != b) layout.addSpring(bodies[a], bodies[b], 0.08 * (0.7 + 0.3 * random.nextInt(10)), 140 + random.nextDouble() * 100);
+        }
+    }
+
+    @Benchmark
+    public ForceLayout step() {
+        layout.step(WIDTH, HEIGHT);
+        return layout;
+    }
+}
@@ -0,0 +1,261 @@
+package com.detextion.bench;
+
+import com.detextion.graph.GraphEdge;
+import com.detextion.services.PDFExtractionService;
+import com.detextion.storage.TokenStore;
+import com.detextion.textanalysis.TextInsights;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * End-to-end ingestion load test: generates a synthetic PDF corpus, then pushes it through the same
+ * path as "Open Multiple PDFs" — PDFBox load, page-wise text stripping, keyword counting, corpus
+ * keyword totals and the shared-keyword graph — without starting the UI.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.detextion.bench.IngestionHarness \
+ *      --docs 500 --pages 12 --words 400 --vocab 30000 --zipf 1.07 --topics 25 --threads 4 --json ingest.json
+ * </pre>
+ *
+ * Reports docs/s, pages/s, per-document latency percentiles, GC time and peak heap. A warm-up pass
+ * over the first documents runs first so JIT compilation isn't billed to the measurement.
+ *
+ * {@code --corpus} chooses what is kept of the text once a document is counted: {@code none} (the
+ * default), {@code heap} (page strings, as the desktop session keeps them), or a {@link TokenStore}
+ * in direct memory ({@code offheap}) or a mapped temp file ({@code mapped}), with keywords then
+ * counted from the store. The retained heap and off-heap bytes are reported after the run.
+ */
+public final class IngestionHarness {
+
+    private static final Logger PDFBOX_LOGGER = Logger.getLogger("org.apache.pdfbox");
+
+    private IngestionHarness() {}
+
+    enum Retention { NONE, HEAP, OFFHEAP, MAPPED }
+
+    record Config(int docs, int pages, int wordsPerPage, int vocabulary, double zipf, int topics, long seed,
+                  int threads, int warmup, Retention corpus, Path dir, boolean keep, Path json) {
+
+        static Config parse(String[] args) throws IOException {
+            Map<String, String> opts = new HashMap<>();
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                String key = args[i].substring(2);
+                if (key.equals("keep")) opts.put(key, "true");
+                else if (i + 1 < args.length) opts.put(key, args[++i]);
+                else throw new IllegalArgumentException("Missing value for --" + key);
+            }
+            Path dir = opts.containsKey("dir") ? Path.of(opts.get("dir")) : Files.createTempDirectory("detextion-ingest");
+            return new Config(
+                    Integer.parseInt(opts.getOrDefault("docs", "200")),
+                    Integer.parseInt(opts.getOrDefault("pages", "10")),
+                    Integer.parseInt(opts.getOrDefault("words", "400")),
+                    Integer.parseInt(opts.getOrDefault("vocab", "20000")),
+                    Double.parseDouble(opts.getOrDefault("zipf", "1.07")),
+                    Integer.parseInt(opts.getOrDefault("topics", "20")),
+                    Long.parseLong(opts.getOrDefault("seed", "42")),
+                    Integer.parseInt(opts.getOrDefault("threads", "1")),
+                    Integer.parseInt(opts.getOrDefault("warmup", "20")),
+                    Retention.valueOf(opts.getOrDefault("corpus", "none").toUpperCase(Locale.ROOT)),
+                    dir,
+                    opts.containsKey("keep") || opts.containsKey("dir"),
+                    opts.containsKey("json") ? Path.of(opts.get("json")) : null);
+        }
+    }
+
+    record Result(int documents, long pages, long nanos, long[] latenciesNanos, long gcMillis, long gcCount,
+                  long peakHeapBytes, long retainedHeapBytes, long offHeapBytes, int keywords, int edges) {
+
+        double seconds() {
+            return nanos / 1e9;
+        }
+
+        double percentileMillis(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int index = (int) Math.ceil(p / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(index, latenciesNanos.length - 1))] / 1e6;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+
+        // PDFBox logs a warning per document when the standard 14 fonts aren't installed
+        PDFBOX_LOGGER.setLevel(Level.SEVERE);
+
+        System.out.printf("Generating %d PDFs x %d pages x ~%d words (vocab %d, zipf %.2f, %d topics, seed %d) in %s%n",
+                config.docs(), config.pages(), config.wordsPerPage(), config.vocabulary(), config.zipf(),
+                config.topics(), config.seed(), config.dir());
+        long genStart = System.nanoTime();
+        SyntheticCorpus corpus = new SyntheticCorpus(config.seed(), config.vocabulary(), config.zipf());
+        List<Path> files = new SyntheticPdfGenerator(corpus)
+                .generate(config.dir(), config.docs(), config.pages(), config.wordsPerPage(), config.topics());
+        long corpusBytes = 0;
+        for (Path f : files) corpusBytes += Files.size(f);
+        System.out.printf("Generated %.1f MB in %.1f s%n", corpusBytes / 1e6, (System.nanoTime() - genStart) / 1e9);
+
+        try {
+            if (config.warmup() > 0) {
+                System.out.printf("Warm-up: %d document(s)%n", Math.min(config.warmup(), files.size()));
+                run(files.subList(0, Math.min(config.warmup(), files.size())), config.threads(), config.corpus());
+            }
+            Result result = run(files, config.threads(), config.corpus());
+            print(config, result);
+            if (config.json() != null) writeJson(config, result, corpusBytes);
+        } finally {
+            if (!config.keep()) {
+                for (Path f : files) Files.deleteIfExists(f);
+                Files.deleteIfExists(config.dir());
+            }
+        }
+    }
+
+    /** One measured pass over {@code files}, mirroring MainController.processPDFs. */
+    static Result run(List<Path> files, int threads, Retention retention)
+            throws InterruptedException, ExecutionException, IOException {
+        PDFExtractionService extraction = new PDFExtractionService();
+        Map<String, Set<String>> documentKeywords = new ConcurrentHashMap<>();
+        Map<String, Integer> keywordFrequency = new ConcurrentHashMap<>();
+        Map<String, List<String>> retainedPages = new ConcurrentHashMap<>();
+        long[] latencies = new long[files.size()];
+        long[] pageCounts = new long[files.size()];
+
+        Path storeFile = retention == Retention.MAPPED ? Files.createTempFile("detextion-tokens", ".bin") : null;
+        System.gc();
+        resetPeakHeap();
+        long gcTimeBefore = gcTime(), gcCountBefore = gcCount();
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (TokenStore store = switch (retention) {
+            case OFFHEAP -> TokenStore.inMemory();
+            case MAPPED -> TokenStore.mapped(storeFile);
+            default -> null;
+        }) {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    long t0 = System.nanoTime();
+                    Path file = files.get(index);
+                    String name = file.getFileName().toString();
+                    try {
+                        List<String> pages = extraction.extractPages(file.toFile());
+                        Map<String, Integer> freq = store == null
+                                ? TextInsights.keywordFrequency(String.join("", pages))
+                                : TextInsights.keywordFrequency(store, store.add(name, String.join("", pages)));
+                        if (retention == Retention.HEAP) retainedPages.put(name, pages);
+                        freq.forEach((k, v) -> keywordFrequency.merge(k, v, Integer::sum));
+                        documentKeywords.put(name, freq.keySet());
+                        pageCounts[index] = pages.size();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    latencies[index] = System.nanoTime() - t0;
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+            int edges = GraphEdge.fromSharedKeywords(documentKeywords).size();
+
+            long nanos = System.nanoTime() - start;
+            long gcMillis = gcTime() - gcTimeBefore, gcCollections = gcCount() - gcCountBefore;
+            long peak = peakHeap();
+            System.gc();
+            long retained = usedHeap();
+            Reference.reachabilityFence(retainedPages); // what a session keeps must survive the measurement
+            long pages = 0;
+            for (long p : pageCounts) pages += p;
+            Arrays.sort(latencies);
+            return new Result(files.size(), pages, nanos, latencies, gcMillis, gcCollections, peak,
+                    retained, store == null ? 0 : store.offHeapBytes(),
+                    keywordFrequency.size(), edges);
+        } finally {
+            pool.shutdown();
+            if (storeFile != null) Files.deleteIfExists(storeFile);
+        }
+    }
+
+    private static void print(Config config, Result r) {
+        System.out.println();
+        System.out.printf("Documents        %,d (%,d pages) on %d thread(s)%n", r.documents(), r.pages(), config.threads());
+        System.out.printf("Wall time        %.2f s%n", r.seconds());
+        System.out.printf("Throughput       %.1f docs/s, %.1f pages/s%n", r.documents() / r.seconds(), r.pages() / r.seconds());
+        System.out.printf("Latency (ms)     p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                r.percentileMillis(50), r.percentileMillis(90), r.percentileMillis(99), r.percentileMillis(100));
+        System.out.printf("GC               %d collections, %d ms (%.1f%% of wall time)%n",
+                r.gcCount(), r.gcMillis(), 100.0 * r.gcMillis() / (r.nanos() / 1e6));
+        System.out.printf("Peak heap        %.1f MB (max %.1f MB)%n", r.peakHeapBytes() / 1e6, Runtime.getRuntime().maxMemory() / 1e6);
+        System.out.printf("Retained         %.1f MB heap, %.1f MB off-heap (corpus: %s)%n",
+                r.retainedHeapBytes() / 1e6, r.offHeapBytes() / 1e6, config.corpus().name().toLowerCase(Locale.ROOT));
+        System.out.printf("Graph            %,d keywords, %,d edges%n", r.keywords(), r.edges());
+    }
+
+    private static void writeJson(Config c, Result r, long corpusBytes) throws IOException {
+        String json = String.format(Locale.ROOT, """
+                {
+                  "config": {"docs": %d, "pages": %d, "wordsPerPage": %d, "vocabulary": %d, "zipf": %s, "topics": %d, "seed": %d, "threads": %d, "corpus": "%s", "corpusBytes": %d},
+                  "jvm": {"version": "%s", "maxHeapBytes": %d, "processors": %d},
+                  "documents": %d,
+                  "pages": %d,
+                  "wallSeconds": %.4f,
+                  "docsPerSecond": %.3f,
+                  "pagesPerSecond": %.3f,
+                  "latencyMillis": {"p50": %.3f, "p90": %.3f, "p99": %.3f, "max": %.3f},
+                  "gc": {"count": %d, "millis": %d},
+                  "peakHeapBytes": %d,
+                  "retainedHeapBytes": %d,
+                  "offHeapBytes": %d
+                }
+                """,
+                c.docs(), c.pages(), c.wordsPerPage(), c.vocabulary(), c.zipf(), c.topics(), c.seed(), c.threads(), c.corpus().name().toLowerCase(Locale.ROOT), corpusBytes,
+                Runtime.version(), Runtime.getRuntime().maxMemory(), Runtime.getRuntime().availableProcessors(),
+                r.documents(), r.pages(), r.seconds(), r.documents() / r.seconds(), r.pages() / r.seconds(),
+                r.percentileMillis(50), r.percentileMillis(90), r.percentileMillis(99), r.percentileMillis(100),
+                r.gcCount(), r.gcMillis(), r.peakHeapBytes(), r.retainedHeapBytes(), r.offHeapBytes());
+        Path parent = c.json().toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.writeString(c.json(), json);
+        System.out.println("Results written to " + c.json());
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += Math.max(0, gc.getCollectionCount());
+        return total;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /** Sum of per-pool peaks: an upper bound, since pools don't all peak at the same moment. */
+    private static long peakHeap() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP) total += pool.getPeakUsage().getUsed();
+        return total;
+    }
+}
@@ -0,0 +1,117 @@
+package com.detextion.bench;
+
+import java.util.*;
+
+/**
+ * Reproducible synthetic text: a fixed vocabulary of made-up words drawn with a Zipfian distribution
+ * (a few very common words, a long tail of rare ones), grouped into sentences.
+ *
+ * Text can optionally belong to a topic: a share of its words then comes from a small topic-specific
+ * slice of the vocabulary, so documents on the same topic share keywords and others don't — closer
+ * to a real corpus than every document having the same top words.
+ *
+ * The same seed and parameters always produce the same text, so benchmark runs on different machines
+ * or releases are measuring the same input.
+ */
+public final class SyntheticCorpus {
+
+    private static final String[] ONSETS = { "b", "c", "d", "f", "g", "l", "m", "n", "p", "r", "s", "t", "v", "st", "tr", "pl" };
+    private static final String[] VOWELS = { "a", "e", "i", "o", "u", "ea", "io" };
+    private static final String[] CODAS = { "", "n", "r", "s", "t", "x", "nd", "rk" };
+
+    private static final double TOPIC_SHARE = 0.25;
+    private static final int TOPIC_WORDS = 200;
+
+    private final Random random;
+    private final List<String> vocabulary;
+    private final double[] cumulative;      // cumulative[i] = P(rank <= i)
+    private final double[] topicCumulative; // same, within one topic's slice
+
+    public SyntheticCorpus(long seed, int vocabularySize, double zipfExponent) {
+        this.random = new Random(seed);
+        this.vocabulary = buildVocabulary(new Random(seed ^ 0x5DEECE66DL), vocabularySize);
+        this.cumulative = zipf(vocabularySize, zipfExponent);
+        this.topicCumulative = zipf(Math.min(TOPIC_WORDS, vocabularySize), zipfExponent);
+    }
+
+    /** Defaults close to English: 20k words, exponent 1.07. */
+    public SyntheticCorpus(long seed) {
+        this(seed, 20_000, 1.07);
+    }
+
+    public List<String> vocabulary() {
+        return Collections.unmodifiableList(vocabulary);
+    }
+
+    public String word() {
+        return vocabulary.get(sample(cumulative));
+    }
+
+    /** A word as it would appear in a document on {@code topic}; a negative topic means none. */
+    public String word(int topic) {
+        if (topic < 0 || random.nextDouble() >= TOPIC_SHARE) return word();
+        int offset = vocabulary.size() / 10 + topic * TOPIC_WORDS; // past the corpus-wide head
+        return vocabulary.get((offset + sample(topicCumulative)) % vocabulary.size());
+    }
+
+    private int sample(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) index = -index - 1;
+        return Math.min(index, cdf.length - 1);
+    }
+
+    /** About {@code words} words of text in sentences of 6–24 words. */
+    public String text(int words) {
+        return text(words, -1);
+    }
+
+    public String text(int words, int topic) {
+        StringBuilder sb = new StringBuilder(words * 8);
+        int written = 0;
+        while (written < words) {
+            int sentence = Math.min(6 + random.nextInt(19), words - written);
+            for (int i = 0; i < sentence; i++) {
+                String w = word(topic);
+                if (i == 0) sb.append(Character.toUpperCase(w.charAt(0))).append(w, 1, w.length());
+                else sb.append(' ').append(w);
+            }
+            sb.append(random.nextInt(10) == 0 ? "?" : ".");
+            sb.append(random.nextInt(6) == 0 ? "\n" : " ");
+            written += sentence;
+        }
+        return sb.toString();
+    }
+
+    /** One document on {@code topic} as {@code pages} pages of about {@code wordsPerPage} words each. */
+    public List<String> pages(int pages, int wordsPerPage, int topic) {
+        List<String> result = new ArrayList<>(pages);
+        for (int p = 0; p < pages; p++) result.add(text(wordsPerPage, topic));
+        return result;
+    }
+
+    private static double[] zipf(int size, double exponent) {
+        double[] cdf = new double[size];
+        double total = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            total += 1.0 / Math.pow(rank, exponent);
+            cdf[rank - 1] = total;
+        }
+        for (int i = 0; i < size; i++) cdf[i] /= total;
+        return cdf;
+    }
+
+    private static List<String> buildVocabulary(Random random, int size) {
+        Set<String> words = new LinkedHashSet<>(size * 2);
+        while (words.size() < size) {
+            int syllables = 1 + random.nextInt(4);
+            StringBuilder w = new StringBuilder();
+            for (int s = 0; s < syllables; s++) {
+                w.append(ONSETS[random.nextInt(ONSETS.length)])
+                 .append(VOWELS[random.nextInt(VOWELS.length)])
+                 .append(CODAS[random.nextInt(CODAS.length)]);
+            }
+            words.add(w.toString());
+        }
+        return new ArrayList<>(words);
+    }
+}
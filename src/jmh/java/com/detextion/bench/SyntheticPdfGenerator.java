@@ -0,0 +1,90 @@
+package com.detextion.bench;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a corpus of real PDF files with {@link SyntheticCorpus} text, laid out as wrapped lines of
+ * Helvetica on A4 pages — the same kind of input the extraction path sees from ordinary text PDFs.
+ */
+public final class SyntheticPdfGenerator {
+
+    private static final float FONT_SIZE = 10.5f;
+    private static final float LEADING = 13.5f;
+    private static final float MARGIN = 56;
+    private static final int CHARS_PER_LINE = 95;
+
+    private final SyntheticCorpus corpus;
+
+    public SyntheticPdfGenerator(SyntheticCorpus corpus) {
+        this.corpus = corpus;
+    }
+
+    /**
+     * Writes {@code documents} PDFs of {@code pages} pages into {@code dir}, spread round-robin over
+     * {@code topics} topics (0 for none); returns their paths.
+     */
+    public List<Path> generate(Path dir, int documents, int pages, int wordsPerPage, int topics) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>(documents);
+        for (int d = 0; d < documents; d++) {
+            Path file = dir.resolve(String.format("synthetic-%05d.pdf", d));
+            write(file, corpus.pages(pages, wordsPerPage, topics > 0 ? d % topics : -1));
+            files.add(file);
+        }
+        return files;
+    }
+
+    public void write(Path file, List<String> pages) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (String text : pages) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                float top = page.getMediaBox().getHeight() - MARGIN;
+                int maxLines = (int) ((top - MARGIN) / LEADING);
+
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, top);
+                    int lines = 0;
+                    for (String line : wrap(text)) {
+                        if (lines++ == maxLines) break; // overflow is dropped rather than spilling onto a new page
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+
+    private static List<String> wrap(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String paragraph : text.split("\n")) {
+            StringBuilder line = new StringBuilder();
+            for (String word : paragraph.split(" ")) {
+                if (word.isEmpty()) continue;
+                if (line.length() + word.length() + 1 > CHARS_PER_LINE) {
+                    lines.add(line.toString());
+                    line.setLength(0);
+                }
+                if (!line.isEmpty()) line.append(' ');
+                line.append(word);
+            }
+            if (!line.isEmpty()) lines.add(line.toString());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,87 @@
+package com.detextion.bench;
+
+import com.detextion.textanalysis.KeywordCooccurrence;
+import com.detextion.textanalysis.KeywordExtractor;
+import com.detextion.textanalysis.TextAnalyzer;
+import com.detextion.textanalysis.TextInsights;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/** The per-document text analysis run on every PDF load, plus the summary and clustering actions. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextAnalysisBenchmark {
+
+    /** Words per document: a short paper, a long report. */
+    @Param({ "5000", "50000" })
+    public int words;
+
+    /** Distinct keywords to cluster (about 15 per document of a 200-document corpus). */
+    @Param("3000")
+    public int clusterKeywords;
+
+    @Param("42")
+    public long seed;
+
+    private String text;
+    private String accentedText;
+    private List<String> keywords;
+
+    @Setup
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(seed);
+        text = corpus.text(words);
+        accentedText = text.replace('e', 'é').replace('u', 'ü'); // nearly every word off the ASCII path
+
+        // What Cluster Keywords sees: up to 15 distinct keywords per loaded document
+        List<String> vocabulary = new ArrayList<>(corpus.vocabulary());
+        Collections.shuffle(vocabulary, new Random(seed));
+        keywords = new ArrayList<>(new TreeSet<>(vocabulary.subList(0, clusterKeywords)));
+    }
+
+    @Benchmark
+    public Map<String, Integer> keywordExtractor() {
+        return KeywordExtractor.extractImportantKeywords(text);
+    }
+
+    @Benchmark
+    public List<String> textAnalyzer() {
+        return TextAnalyzer.extractKeywords(text);
+    }
+
+    @Benchmark
+    public Map<String, Integer> keywordFrequency() {
+        return TextInsights.keywordFrequency(text);
+    }
+
+    @Benchmark
+    public Map<String, Integer> accentedKeywordFrequency() {
+        return TextInsights.keywordFrequency(accentedText);
+    }
+
+    @Benchmark
+    public Map<String, Integer> phraseKeywordFrequency() {
+        return TextInsights.keywordFrequency(text, true);
+    }
+
+    @Benchmark
+    public KeywordCooccurrence.Graph keywordCooccurrence() {
+        return KeywordCooccurrence.build(text);
+    }
+
+    @Benchmark
+    public String summarize() {
+        return TextInsights.summarize(text);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> clusterKeywords() {
+        return TextInsights.clusterKeywords(keywords);
+    }
+}
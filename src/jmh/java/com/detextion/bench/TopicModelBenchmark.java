@@ -0,0 +1,59 @@
+package com.detextion.bench;
+
+import com.detextion.textanalysis.TopicModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fitting the topic model over a synthetic corpus with per-topic vocabulary. Compare {@code threads}
+ * to see what the AD-LDA partitioning buys on the machine at hand.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicModelBenchmark {
+
+    @Param({ "200", "1000" })
+    public int documents;
+
+    @Param("2000")
+    public int words;
+
+    @Param({ "1", "4" })
+    public int threads;
+
+    @Param("20")
+    public int iterations;
+
+    @Param("42")
+    public long seed;
+
+    private List<String> names;
+    private Map<String, String> texts;
+    private TopicModel.Options options;
+
+    @Setup
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(seed);
+        texts = new HashMap<>();
+        names = new ArrayList<>();
+        for (int d = 0; d < documents; d++) {
+            names.add("doc-" + d);
+            texts.put("doc-" + d, corpus.text(words, d % 10));
+        }
+        TopicModel.Options defaults = TopicModel.Options.defaults(10);
+        options = new TopicModel.Options(10, iterations, defaults.alpha(), defaults.beta(), defaults.vocabulary(),
+                threads, seed);
+    }
+
+    @Benchmark
+    public TopicModel fit() throws IOException {
+        return TopicModel.fit(names, texts::get, options);
+    }
+}
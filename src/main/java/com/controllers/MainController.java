@@ -1,14 +1,39 @@
 package com.controllers;
 
+import com.detextion.diagnostics.PerfOverlay;
+import com.detextion.diagnostics.PerfStats;
+import com.detextion.graph.ForceLayout;
+import com.detextion.graph.GraphConnector;
+import com.detextion.graph.GraphEdge;
+import com.detextion.graph.GraphExchange;
+import com.detextion.graph.GraphWriter;
+import com.detextion.graph.KeywordIndex;
+import com.detextion.graph.SubgraphLoader;
+import com.detextion.repository.CorpusQueries;
+import com.detextion.repository.DocumentRepository;
+import com.detextion.services.AnalysisTasks;
+import com.detextion.services.PDFExtractionService;
+import com.detextion.storage.CorpusReader;
+import com.detextion.storage.CorpusWriter;
+import com.detextion.storage.WorkspaceSnapshot;
+import com.detextion.textanalysis.KeywordCooccurrence;
 import com.detextion.textanalysis.KeywordFrequencyChart;
+import com.detextion.textanalysis.TextInsights;
+import com.detextion.textanalysis.TopicModel;
+import com.detextion.viewer.DocumentViewer;
 import javafx.animation.*;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Bounds;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.effect.DropShadow;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
@@ -19,13 +44,17 @@ import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Duration;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class MainController {
@@ -34,7 +63,13 @@ public class MainController {
     @FXML private ToolBar mainToolbar;
     @FXML private SplitPane editorFrame;
     @FXML private Button openEditorButton;
-    @FXML private TextArea textAreaContent;
+    @FXML private TextArea textAreaContent; // scratch text the user edits
+    @FXML private DocumentViewer documentViewer;
+    @FXML private TabPane editorTabs;
+    @FXML private Tab documentsTab;
+    @FXML private Tab scratchTab;
+    @FXML private ProgressBar analysisProgress;
+    @FXML private Button cancelAnalysisButton;
     @FXML private Pane graphPane;
     @FXML private VBox mainVBox;
 
@@ -48,49 +83,67 @@ public class MainController {
     // === Data ===
     private final Map<String, Set<String>> pdfKeywords = new HashMap<>();
     private final Map<String, Integer> keywordFrequency = new HashMap<>();
+    private final Map<String, List<String>> pdfPages = new LinkedHashMap<>(); // extracted text, per page
+    private final PDFExtractionService extractionService = new PDFExtractionService();
+    private CorpusReader workspaceCorpus; // text of a restored workspace, read on demand
+    private volatile int loadGeneration;  // bumped whenever the loaded corpus is replaced
+    private boolean ingesting;            // PDFs are still being extracted in the background
+    private boolean phraseKeywords;       // count "neural network" as one keyword rather than two
+    private final AtomicInteger ingestQueue = new AtomicInteger(); // PDFs of the current load not yet extracted
+    private final Set<String> extractingNames = new HashSet<>();    // FX thread only: PDFs queued but not yet in pdfKeywords
+    private final AnalysisTasks analysisTasks = new AnalysisTasks();
+    private KeywordIndex keywordIndex;    // keyword postings of the session for incremental adds; null = rebuild on demand
+    private TopicModel topicModel;        // topics of the loaded documents, once fitted; colors document nodes
     private final Map<String, Circle> nodeMap = new HashMap<>();
 
     // === Graph root (for zoom & pan) ===
     private final Group graphGroup = new Group();
+    private final PerfOverlay perfOverlay = new PerfOverlay();
     private double mouseX, mouseY;
 
     // ===========================================================
     // Physics (Force-directed) — Option 1 added
     // ===========================================================
     private static class NodeBody {
-        final String id;
+        final ForceLayout.Body body;
         final Circle circle;
-        double vx = 0, vy = 0;
-        final double mass = 1.0;
-        NodeBody(String id, Circle c) { this.id = id; this.circle = c; }
-        double x() { return circle.getCenterX(); }
-        double y() { return circle.getCenterY(); }
-        void set(double x, double y) { circle.setCenterX(x); circle.setCenterY(y); }
+        NodeBody(ForceLayout.Body body, Circle c) { this.body = body; this.circle = c; }
+        double x() { return body.x(); }
+        double y() { return body.y(); }
+        void set(double x, double y) { body.set(x, y); syncCircle(); }
+        void syncCircle() { circle.setCenterX(body.x()); circle.setCenterY(body.y()); }
     }
     private static class EdgeBody {
         final NodeBody a, b;
         final Line line;
-        final double k;        // spring constant
-        final double restLen;  // natural length
-        EdgeBody(NodeBody a, NodeBody b, Line line, double k, double restLen) {
-            this.a = a; this.b = b; this.line = line; this.k = k; this.restLen = restLen;
+        final GraphEdge data; // what the edge stands for, for export
+        EdgeBody(NodeBody a, NodeBody b, Line line, GraphEdge data) {
+            this.a = a; this.b = b; this.line = line; this.data = data;
         }
     }
 
+    private final ForceLayout layout = new ForceLayout();
     private final Map<String, NodeBody> physNodes = new HashMap<>();
     private final List<EdgeBody> physEdges = new ArrayList<>();
     private Timeline forceTimeline;
     private boolean physicsEnabled = true;
 
+    // Lazy graph mode (null loader = eager, in-memory graph)
+    private static final int LAZY_PREFETCH_COUNT = 4;
+    private SubgraphLoader subgraphLoader;
+    // Hops loaded around the focused document, and the fewest shared keywords an edge needs to be drawn
+    private static final int LAZY_DEPTH = Math.max(1, Integer.getInteger("detextion.graph.depth", 2));
+    private static final int LAZY_MIN_EDGE_WEIGHT = Math.max(1, Integer.getInteger("detextion.graph.minEdgeWeight", 2));
+
+    // Stored corpus: how many corpus-wide terms feed the keyword chart
+    private static final int STORED_CHART_TERMS = 200;
+    private final Set<String> expandedNodes = new HashSet<>();
+    private final Set<String> edgeKeys = new HashSet<>();
+
     // Tunables
-    private double repulsionK = 2800;   // Coulomb constant
     private double springBaseK = 0.08;  // Hooke base (scaled by edge weight)
-    private double damping = 0.85;      // velocity damping
-    private double timeStep = 0.016;    // ~60 FPS
     private double minRestLen = 140;    // min spring length
     private double maxRestLen = 240;    // max spring length
-    private double repelClamp = 900;    // cap repulsive force
-    private double maxSpeed = 900;      // clamp speed
 
     // ===========================================================
     // INIT
@@ -99,6 +152,18 @@ public class MainController {
     public void initialize() {
         // Add graph group to pane
         graphPane.getChildren().add(graphGroup);
+        perfOverlay.relocate(12, 12); // fixed in the pane, outside the zoom/pan group
+        graphPane.getChildren().add(perfOverlay);
+        PerfStats.queue("ingest", ingestQueue::get);
+        PerfStats.queue("analysis", analysisTasks.activeCountProperty()::get);
+        documentViewer.setPageLoader(this::loadPage);
+
+        // Busy indicator for background analysis actions
+        var analysisBusy = analysisTasks.activeCountProperty().greaterThan(0);
+        analysisProgress.visibleProperty().bind(analysisBusy);
+        analysisProgress.managedProperty().bind(analysisBusy);
+        cancelAnalysisButton.visibleProperty().bind(analysisBusy);
+        cancelAnalysisButton.managedProperty().bind(analysisBusy);
 
         // ✅ Ensure toolbar is hidden until editor is opened
         if (mainToolbar != null) {
@@ -128,6 +193,7 @@ public class MainController {
             graphGroup.setTranslateY(graphGroup.getTranslateY() + dy);
             mouseX = e.getSceneX(); mouseY = e.getSceneY();
         });
+        graphPane.setOnMouseReleased(e -> expandVisibleNodes());
 
         // Subtle UI entrance
         if (mainVBox != null) {
@@ -177,76 +243,164 @@ public class MainController {
     // ===========================================================
     // PDF HANDLING
     // ===========================================================
-    @FXML private void onUploadClicked() { processPDFs(false); }
-    @FXML private void onUploadMultipleClicked() { processPDFs(true); }
-
-    private void processPDFs(boolean multiple) {
+    @FXML private void onUploadClicked() { processPDFs(false, false); }
+    @FXML private void onUploadMultipleClicked() { processPDFs(true, false); }
+    @FXML private void onAddToSessionClicked() { processPDFs(true, true); }
+
+    /**
+     * Opens PDFs and extracts them in the background. Normally the loaded session is replaced; with
+     * {@code append} the files are added to it instead: only they are extracted, their counts are
+     * merged, and their nodes and edges go straight into the running layout as each one finishes.
+     */
+    private void processPDFs(boolean multiple, boolean append) {
         FileChooser chooser = new FileChooser();
         chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
 
-        List<File> files = multiple
+        List<File> chosen = multiple
                 ? chooser.showOpenMultipleDialog(null)
                 : Optional.ofNullable(chooser.showOpenDialog(null)).map(List::of).orElse(Collections.emptyList());
 
-        if (files == null || files.isEmpty()) return;
-
-        pdfKeywords.clear();
-        keywordFrequency.clear();
-        textAreaContent.clear();
-        nodeMap.clear();
-
-        for (File file : files) {
-            try (PDDocument doc = PDDocument.load(file)) {
-                PDFTextStripper stripper = new PDFTextStripper();
-                String content = stripper.getText(doc);
-                textAreaContent.appendText("=== " + file.getName() + " ===\n" + content + "\n\n");
-
-                Map<String, Integer> freqMap = extractKeywordFrequency(content);
-                freqMap.forEach((k, v) -> keywordFrequency.merge(k, v, Integer::sum));
-                pdfKeywords.put(file.getName(), freqMap.keySet());
-
-            } catch (IOException e) {
-                textAreaContent.appendText("\n⚠ Error reading " + file.getName() + ": " + e.getMessage() + "\n");
+        if (chosen == null || chosen.isEmpty()) return;
+
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        List<File> files = chosen;
+        KeywordFrequencyChart liveChart = KeywordFrequencyChart.shared();
+        int generation;
+        if (append) {
+            // Same name = same document: re-adding it would double its counts
+            files = new ArrayList<>();
+            for (File f : chosen) {
+                if (pdfKeywords.containsKey(f.getName()) || pdfPages.containsKey(f.getName())
+                        || extractingNames.contains(f.getName()))
+                    errors.add("ℹ Already in session: " + f.getName());
+                else
+                    files.add(f);
+            }
+            if (files.isEmpty()) {
+                new Alert(Alert.AlertType.INFORMATION, String.join("\n", errors)).showAndWait();
+                return;
             }
+            generation = loadGeneration; // joins the current session; a replacing load still supersedes it
+            if (keywordIndex == null) keywordIndex = KeywordIndex.of(pdfKeywords);
+            if (!ingesting) {
+                liveChart.reset();
+                liveChart.addCounts(keywordFrequency);
+            }
+            prepareIncrementalGraph();
+        } else {
+            generation = ++loadGeneration; // supersedes any load still running
+            ingestQueue.set(0);
+            extractingNames.clear();
+            keywordIndex = null;
+            topicModel = null;
+            pdfKeywords.clear();
+            keywordFrequency.clear();
+            pdfPages.clear();
+            closeWorkspaceCorpus();
+            documentViewer.clear();
+            clearGraph();
+            stopForceSimulation(); // reset physics
+            subgraphLoader = null; // back to the eager in-memory graph
+            liveChart.reset();
         }
-
-        graphGroup.getChildren().clear();
-        stopForceSimulation(); // reset physics
-
-        if (files.size() == 1)
-            generateKeywordGraph(pdfKeywords);
-        else
-            generateConnectionGraph(pdfKeywords); // physics auto-starts
+        ingesting = true;
+        ingestQueue.addAndGet(files.size());
+        for (File f : files) extractingNames.add(f.getName());
+        editorTabs.getSelectionModel().select(documentsTab);
+
+        // Extract off the FX thread; each document shows up in the viewer and the live chart as soon as it's done
+        List<File> toExtract = files;
+        CompletableFuture
+                .runAsync(() -> {
+                    for (File file : toExtract) {
+                        if (generation != loadGeneration) return;
+                        try {
+                            List<String> pages = extractionService.extractPages(file);
+                            Map<String, Integer> freqMap = TextInsights.keywordFrequency(String.join("", pages), phraseKeywords);
+                            if (generation != loadGeneration) return; // the chart now belongs to a newer load
+                            liveChart.addCounts(freqMap);
+                            Platform.runLater(() -> {
+                                if (generation != loadGeneration) return;
+                                extractingNames.remove(file.getName());
+                                pdfPages.put(file.getName(), pages);
+                                documentViewer.addDocument(file.getName(), pages.size());
+                                freqMap.forEach((k, v) -> keywordFrequency.merge(k, v, Integer::sum));
+                                pdfKeywords.put(file.getName(), freqMap.keySet());
+                                if (append) addToGraph(file.getName(), freqMap.keySet());
+                            });
+                        } catch (IOException e) {
+                            errors.add("⚠ Error reading " + file.getName() + ": " + e.getMessage());
+                            Platform.runLater(() -> {
+                                if (generation == loadGeneration) extractingNames.remove(file.getName());
+                            });
+                        }
+                        if (generation == loadGeneration) ingestQueue.decrementAndGet();
+                    }
+                })
+                .whenComplete((v, err) -> Platform.runLater(() -> {
+                    if (generation != loadGeneration) return;
+                    ingesting = ingestQueue.get() > 0;
+                    if (err != null) errors.add("⚠ " + err.getMessage());
+                    if (!errors.isEmpty())
+                        new Alert(Alert.AlertType.WARNING, String.join("\n", errors)).showAndWait();
+
+                    if (append)
+                        return; // nodes and edges were inserted as each document finished
+                    // An "Add to Session" still extracting inserts into the graph drawn below, so index it all
+                    keywordIndex = ingesting ? KeywordIndex.of(pdfKeywords) : null;
+                    if (pdfKeywords.size() == 1)
+                        generateKeywordGraph(pdfKeywords);
+                    else
+                        generateConnectionGraph(pdfKeywords.keySet(), GraphEdge.fromSharedKeywords(pdfKeywords)); // physics auto-starts
+                }));
     }
 
-    private Map<String, Integer> extractKeywordFrequency(String text) {
-        Set<String> stopWords = Set.of(
-                "this","that","with","from","have","were","there","their","been","about","which","also","some","will",
-                "into","your","the","and","for","are","was","you","but","not","can","all","any","has","they"
-        );
-
-        List<String> words = Arrays.stream(text.split("\\W+"))
-                .map(String::toLowerCase)
-                .filter(w -> w.length() > 3 && !stopWords.contains(w))
-                .toList();
-
-        Map<String, Integer> freq = new HashMap<>();
-        for (String w : words) freq.put(w, freq.getOrDefault(w, 0) + 1);
+    /**
+     * Makes sure the force-directed document graph is showing before documents are added to it.
+     * Only a session shown some other way — the single-PDF radial view or a stored-graph
+     * exploration — is rebuilt once; an existing document graph is kept as it is.
+     */
+    private void prepareIncrementalGraph() {
+        boolean showingSession = subgraphLoader == null && physNodes.keySet().equals(pdfKeywords.keySet());
+        if (showingSession) return;
+        subgraphLoader = null;
+        keywordIndex = KeywordIndex.of(pdfKeywords);
+        generateConnectionGraph(pdfKeywords.keySet(), GraphEdge.fromSharedKeywords(pdfKeywords));
+    }
 
-        return freq.entrySet().stream()
-                .sorted(Map.Entry.<String,Integer>comparingByValue().reversed())
-                .limit(15)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey, Map.Entry::getValue,
-                        (a,b) -> a, LinkedHashMap::new
-                ));
+    /** Inserts one new document and its edges to the existing ones into the running layout. */
+    private void addToGraph(String doc, Set<String> keywords) {
+        Set<String> others = new HashSet<>(pdfKeywords.keySet());
+        others.remove(doc);
+        if (keywordIndex == null || subgraphLoader != null || !physNodes.keySet().equals(others)) {
+            // The graph was redrawn some other way while this document extracted: draw the session again
+            subgraphLoader = null;
+            keywordIndex = KeywordIndex.of(pdfKeywords);
+            generateConnectionGraph(pdfKeywords.keySet(), GraphEdge.fromSharedKeywords(pdfKeywords));
+            return;
+        }
+        List<GraphEdge> edges = keywordIndex.add(doc, keywords);
+
+        // Start next to the strongest neighbor so the layout settles locally instead of reshuffling
+        NodeBody anchor = edges.stream()
+                .max(Comparator.comparingInt(GraphEdge::weight))
+                .map(e -> physNodes.get(e.source().equals(doc) ? e.target() : e.source()))
+                .orElse(null);
+        double ax = anchor != null ? anchor.x() : (graphPane.getWidth() > 0 ? graphPane.getWidth() : 900) / 2;
+        double ay = anchor != null ? anchor.y() : (graphPane.getHeight() > 0 ? graphPane.getHeight() : 600) / 2;
+        double angle = ThreadLocalRandom.current().nextDouble() * 2 * Math.PI;
+        double r = minRestLen * (0.6 + ThreadLocalRandom.current().nextDouble() * 0.6);
+        addDocumentNode(doc, ax + r * Math.cos(angle), ay + r * Math.sin(angle));
+
+        for (GraphEdge e : edges) addConnectionEdge(e);
+        if (physicsEnabled && forceTimeline == null) startForceSimulation();
     }
 
     // ===========================================================
     // SINGLE PDF GRAPH (kept as your modern radial)
     // ===========================================================
     private void generateKeywordGraph(Map<String, Set<String>> map) {
-        graphGroup.getChildren().clear();
+        clearGraph();
         if (map.isEmpty()) return;
 
         String pdfName = map.keySet().iterator().next();
@@ -308,15 +462,22 @@ public class MainController {
         }
     }
 
-    // ===========================================================
-    // MULTI-PDF GRAPH with FORCE-DIRECTED LAYOUT (physics)
-    // ===========================================================
-    private void generateConnectionGraph(Map<String, Set<String>> map) {
+    /** Empties the drawing and the physics model behind it, so nothing still refers to removed nodes. */
+    private void clearGraph() {
         graphGroup.getChildren().clear();
+        nodeMap.clear();
         physNodes.clear();
         physEdges.clear();
+        layout.clear();
+    }
+
+    // ===========================================================
+    // MULTI-PDF GRAPH with FORCE-DIRECTED LAYOUT (physics)
+    // ===========================================================
+    private void generateConnectionGraph(Collection<String> documents, Collection<GraphEdge> edges) {
+        clearGraph();
 
-        int n = map.size();
+        int n = documents.size();
         if (n == 0) return;
 
         double width = graphPane.getWidth() > 0 ? graphPane.getWidth() : 900;
@@ -325,84 +486,272 @@ public class MainController {
         double startRadius = Math.min(centerX, centerY) - 120;
 
         // Nodes (init in a circle)
-        List<String> files = new ArrayList<>(map.keySet());
-        nodeMap.clear();
+        List<String> files = new ArrayList<>(documents);
 
         for (int i = 0; i < n; i++) {
             double angle = 2 * Math.PI * i / n;
             double x = centerX + startRadius * Math.cos(angle);
             double y = centerY + startRadius * Math.sin(angle);
+            addDocumentNode(files.get(i), x, y);
+        }
 
-            Circle node = new Circle(x, y, 40, Color.web("#3C8DFF"));
-            node.setStroke(Color.WHITE);
-            node.setStrokeWidth(1.5);
-            node.setEffect(new DropShadow(10, Color.web("#0078FF")));
+        // Edges with weight-based springs
+        for (GraphEdge e : edges) addConnectionEdge(e);
 
-            String fileName = files.get(i);
-            Tooltip.install(node, new Tooltip(fileName));
-            nodeMap.put(fileName, node);
+        // Start physics
+        if (physicsEnabled) startForceSimulation();
+    }
 
-            NodeBody body = new NodeBody(fileName, node);
-            physNodes.put(fileName, body);
+    /** Adds one document node (circle + following label) to the graph and the physics model. */
+    private void addDocumentNode(String fileName, double x, double y) {
+        int topic = topicModel == null ? -1 : topicModel.dominantTopic(fileName);
+        Circle node = new Circle(x, y, 40, topic < 0 ? Color.web("#3C8DFF") : topicColor(topic));
+        node.setStroke(Color.WHITE);
+        node.setStrokeWidth(1.5);
+        node.setEffect(new DropShadow(10, Color.web("#0078FF")));
 
-            node.setOnMouseClicked(e -> highlightPDFSection(fileName));
+        Tooltip.install(node, new Tooltip(topic < 0 ? fileName
+                : fileName + "\nTopic " + (topic + 1) + ": " + topicModel.topics().get(topic).label()));
+        nodeMap.put(fileName, node);
 
-            Text label = new Text(x - fileName.length() * 3, y + 4, fileName);
-            label.setFill(Color.web("#E6F0FF"));
-            label.setStyle("-fx-font-size: 12px; -fx-font-weight: 600;");
+        NodeBody body = new NodeBody(layout.addBody(fileName, x, y), node);
+        physNodes.put(fileName, body);
+
+        node.setOnMouseClicked(e -> {
+            if (subgraphLoader != null) expandNode(fileName);
+            else highlightPDFSection(fileName);
+        });
+
+        Text label = new Text(x - fileName.length() * 3, y + 4, fileName);
+        label.setFill(Color.web("#E6F0FF"));
+        label.setStyle("-fx-font-size: 12px; -fx-font-weight: 600;");
+
+        // keep label following node while physics runs
+        node.centerXProperty().addListener((obs, ov, nv) -> label.setX(nv.doubleValue() - fileName.length() * 3));
+        node.centerYProperty().addListener((obs, ov, nv) -> label.setY(nv.doubleValue() + 4));
+
+        graphGroup.getChildren().addAll(node, label);
+    }
+
+    /** Adds a shared-keyword edge between two existing document nodes, with a weight-based spring. */
+    private void addConnectionEdge(GraphEdge e) {
+        String A = e.source(), B = e.target();
+        List<String> common = e.sharedKeywords();
+        Circle ca = nodeMap.get(A);
+        Circle cb = nodeMap.get(B);
+        Line edge = new Line(ca.getCenterX(), ca.getCenterY(), cb.getCenterX(), cb.getCenterY());
+
+        // Imported edges may carry only a weight
+        double weight = Math.min(common.isEmpty() ? e.weight() : common.size(), 10);
+        edge.setStroke(Color.web("#6FBFFF"));
+        edge.setOpacity(0.3 + weight * 0.05);
+        edge.setStrokeWidth(1.1 + weight * 0.15);
+        Tooltip.install(edge, new Tooltip(common.isEmpty() ? "Weight: " + e.weight() : "Shared: " + String.join(", ", common)));
+
+        Set<String> shared = new LinkedHashSet<>(common);
+        edge.setOnMouseClicked(click -> {
+            glowConnection(ca, cb);
+            showSharedKeywords(A, B, shared);
+        });
+
+        addEdgeSpring(e, edge, weight);
+    }
+
+    /** Puts {@code edge} under the nodes and springs them together; a heavier edge (0–10) is shorter and stiffer. */
+    private void addEdgeSpring(GraphEdge data, Line edge, double weight) {
+        graphGroup.getChildren().add(0, edge);
 
-            // keep label following node while physics runs
-            node.centerXProperty().addListener((obs, ov, nv) -> label.setX(nv.doubleValue() - fileName.length() * 3));
-            node.centerYProperty().addListener((obs, ov, nv) -> label.setY(nv.doubleValue() + 4));
+        NodeBody a = physNodes.get(data.source());
+        NodeBody b = physNodes.get(data.target());
 
-            graphGroup.getChildren().addAll(node, label);
+        double rest = minRestLen + (maxRestLen - minRestLen) * (1.0 - weight / 10.0);
+        double k = springBaseK * (0.7 + 0.3 * weight);
+        layout.addSpring(a.body, b.body, k, rest);
+        physEdges.add(new EdgeBody(a, b, edge, data));
+    }
+
+    // ===========================================================
+    // KEYWORD MAP — one document's keywords linked by co-occurrence
+    // ===========================================================
+    private void generateCooccurrenceGraph(String doc, KeywordCooccurrence.Graph graph) {
+        clearGraph();
+        subgraphLoader = null;
+        if (graph.pairs().isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "No keywords of " + doc + " occur together often enough to map.").showAndWait();
+            return;
         }
 
-        // Edges with weight-based springs
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                String A = files.get(i), B = files.get(j);
-                Set<String> common = new HashSet<>(map.get(A));
-                common.retainAll(map.get(B));
-
-                if (!common.isEmpty()) {
-                    Circle ca = nodeMap.get(A);
-                    Circle cb = nodeMap.get(B);
-                    Line edge = new Line(ca.getCenterX(), ca.getCenterY(), cb.getCenterX(), cb.getCenterY());
-
-                    double weight = Math.min(common.size(), 10);
-                    edge.setStroke(Color.web("#6FBFFF"));
-                    edge.setOpacity(0.3 + weight * 0.05);
-                    edge.setStrokeWidth(1.1 + weight * 0.15);
-                    Tooltip.install(edge, new Tooltip("Shared: " + String.join(", ", common)));
-
-                    edge.setOnMouseClicked(e -> {
-                        glowConnection(ca, cb);
-                        showSharedKeywords(A, B, common);
-                    });
-
-                    graphGroup.getChildren().add(0, edge);
-
-                    NodeBody a = physNodes.get(A);
-                    NodeBody b = physNodes.get(B);
-
-                    double rest = minRestLen + (maxRestLen - minRestLen) * (1.0 - weight / 10.0);
-                    double k = springBaseK * (0.7 + 0.3 * weight);
-                    physEdges.add(new EdgeBody(a, b, edge, k, rest));
-                }
-            }
+        Map<String, List<KeywordCooccurrence.Pair>> neighbors = new HashMap<>();
+        for (KeywordCooccurrence.Pair p : graph.pairs()) {
+            neighbors.computeIfAbsent(p.a(), x -> new ArrayList<>()).add(p);
+            neighbors.computeIfAbsent(p.b(), x -> new ArrayList<>()).add(p);
+        }
+
+        double width = graphPane.getWidth() > 0 ? graphPane.getWidth() : 900;
+        double height = graphPane.getHeight() > 0 ? graphPane.getHeight() : 600;
+        double startRadius = Math.min(width, height) / 2 - 120;
+        List<KeywordCooccurrence.Term> terms = graph.terms().stream().filter(t -> neighbors.containsKey(t.term())).toList();
+        int maxCount = terms.get(0).count();
+        for (int i = 0; i < terms.size(); i++) {
+            double angle = 2 * Math.PI * i / terms.size();
+            KeywordCooccurrence.Term t = terms.get(i);
+            addKeywordNode(t, maxCount, neighbors.get(t.term()),
+                    width / 2 + startRadius * Math.cos(angle), height / 2 + startRadius * Math.sin(angle));
+        }
+
+        // Edge weight 0–10 by PMI relative to the other kept edges
+        double minPmi = graph.pairs().stream().mapToDouble(KeywordCooccurrence.Pair::pmi).min().orElse(0);
+        double maxPmi = graph.pairs().stream().mapToDouble(KeywordCooccurrence.Pair::pmi).max().orElse(0);
+        for (KeywordCooccurrence.Pair p : graph.pairs()) {
+            double weight = maxPmi > minPmi ? 10 * (p.pmi() - minPmi) / (maxPmi - minPmi) : 5;
+            Circle ca = nodeMap.get(p.a());
+            Circle cb = nodeMap.get(p.b());
+            Line edge = new Line(ca.getCenterX(), ca.getCenterY(), cb.getCenterX(), cb.getCenterY());
+            edge.setStroke(Color.web("#6FBFFF"));
+            edge.setOpacity(0.25 + weight * 0.04);
+            edge.setStrokeWidth(0.8 + weight * 0.2);
+            Tooltip.install(edge, new Tooltip(String.format("%s ↔ %s: %d× within %d words (PMI %.2f)",
+                    p.a(), p.b(), p.count(), KeywordCooccurrence.DEFAULT_WINDOW, p.pmi())));
+            edge.setOnMouseClicked(e -> glowConnection(ca, cb));
+            addEdgeSpring(new GraphEdge(p.a(), p.b(), p.count(), List.of()), edge, weight);
         }
 
-        // Start physics
         if (physicsEnabled) startForceSimulation();
     }
 
+    /** A keyword node sized by its count; clicking it lists what it co-occurs with in the inspector. */
+    private void addKeywordNode(KeywordCooccurrence.Term term, int maxCount, List<KeywordCooccurrence.Pair> pairs,
+                                double x, double y) {
+        String word = term.term();
+        Circle node = new Circle(x, y, 12 + 18 * Math.sqrt((double) term.count() / maxCount), Color.web("#3C8DFF"));
+        node.setStroke(Color.web("#DDEBFF"));
+        node.setStrokeWidth(1.3);
+        Tooltip.install(node, new Tooltip("Keyword: " + word + " (" + term.count() + "×)"));
+        nodeMap.put(word, node);
+        physNodes.put(word, new NodeBody(layout.addBody(word, x, y), node));
+
+        node.setOnMouseEntered(e -> node.setEffect(new DropShadow(15, Color.web("#00FFFF"))));
+        node.setOnMouseExited(e -> node.setEffect(null));
+        node.setOnMouseClicked(e -> showKeywordNeighbors(word, pairs));
+
+        Text label = new Text(x - word.length() * 3, y + 4, word);
+        label.setFill(Color.web("#E6F0FF"));
+        label.setStyle("-fx-font-size: 12px;");
+        node.centerXProperty().addListener((obs, ov, nv) -> label.setX(nv.doubleValue() - word.length() * 3));
+        node.centerYProperty().addListener((obs, ov, nv) -> label.setY(nv.doubleValue() + 4));
+
+        graphGroup.getChildren().addAll(node, label);
+    }
+
+    private void showKeywordNeighbors(String word, List<KeywordCooccurrence.Pair> pairs) {
+        List<String> items = pairs.stream()
+                .sorted(Comparator.comparingInt(KeywordCooccurrence.Pair::count).reversed())
+                .map(p -> (p.a().equals(word) ? p.b() : p.a()) + " (" + p.count() + "×)")
+                .toList();
+        if (connectionInspector == null) {
+            new Alert(Alert.AlertType.INFORMATION, "Keywords near " + word + ":\n" + String.join(", ", items)).showAndWait();
+            return;
+        }
+        connectionInspector.setVisible(true);
+        connectionInspector.setTranslateX(300);
+        inspectorTitle.setText("🔑 " + word);
+        inspectorSubtitle.setText(items.size() + " keyword(s) nearby:");
+        sharedKeywordList.getItems().setAll(items);
+
+        TranslateTransition slideIn = new TranslateTransition(Duration.millis(300), connectionInspector);
+        slideIn.setToX(0);
+        slideIn.play();
+    }
+
+    // ===========================================================
+    // LAZY GRAPH MODE — explore the Neo4j store one neighborhood at a time
+    // ===========================================================
+    @FXML
+    private void onExploreGraphClicked() {
+        TextInputDialog dialog = new TextInputDialog(pdfKeywords.isEmpty() ? "" : pdfKeywords.keySet().iterator().next());
+        dialog.setTitle("🕸 Explore Stored Graph");
+        dialog.setHeaderText("Open the neighborhood of a stored document.\nClick a node to expand it.");
+        dialog.setContentText("Document name:");
+        Optional<String> focus = dialog.showAndWait().map(String::trim).filter(s -> !s.isEmpty());
+        if (focus.isEmpty()) return;
+
+        stopForceSimulation();
+        clearGraph();
+        expandedNodes.clear();
+        edgeKeys.clear();
+
+        subgraphLoader = new SubgraphLoader(GraphConnector.getDriver(), LAZY_MIN_EDGE_WEIGHT);
+        double width = graphPane.getWidth() > 0 ? graphPane.getWidth() : 900;
+        double height = graphPane.getHeight() > 0 ? graphPane.getHeight() : 600;
+        addDocumentNode(focus.get(), width / 2, height / 2);
+        loadNeighborhood(focus.get(), LAZY_DEPTH);
+    }
+
+    private void expandNode(String name) {
+        if (expandedNodes.contains(name)) {
+            highlightPDFSection(name);
+            return;
+        }
+        loadNeighborhood(name, 1);
+    }
+
+    /** Pages in the neighborhood of {@code name}, merges it into the live layout, then prefetches the boundary. */
+    private void loadNeighborhood(String name, int depth) {
+        SubgraphLoader loader = subgraphLoader;
+        expandedNodes.add(name);
+        loader.load(name, depth).whenComplete((sub, err) -> Platform.runLater(() -> {
+            if (loader != subgraphLoader) return; // a newer exploration replaced this one
+            if (err != null) {
+                expandedNodes.remove(name);
+                new Alert(Alert.AlertType.ERROR, "⚠ Couldn't load graph around " + name + ":\n" + err.getMessage()).showAndWait();
+                return;
+            }
+            mergeSubgraph(sub);
+            loader.prefetch(sub.boundary(expandedNodes, LAZY_PREFETCH_COUNT));
+        }));
+    }
+
+    private void mergeSubgraph(SubgraphLoader.Subgraph sub) {
+        Circle anchor = nodeMap.get(sub.focus());
+        double ax = anchor != null ? anchor.getCenterX() : graphPane.getWidth() / 2;
+        double ay = anchor != null ? anchor.getCenterY() : graphPane.getHeight() / 2;
+        Random rand = new Random();
+
+        for (String node : sub.nodes()) {
+            if (nodeMap.containsKey(node)) continue;
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            double r = minRestLen * (0.6 + rand.nextDouble() * 0.6);
+            addDocumentNode(node, ax + r * Math.cos(angle), ay + r * Math.sin(angle));
+        }
+        for (GraphEdge e : sub.edges()) {
+            if (edgeKeys.add(e.source() + "\u0000" + e.target()))
+                addConnectionEdge(e);
+        }
+        if (physicsEnabled) startForceSimulation();
+    }
+
+    /** After a pan, page in nodes that came into view but were never expanded. */
+    private void expandVisibleNodes() {
+        if (subgraphLoader == null) return;
+        Bounds view = graphPane.getLayoutBounds();
+        int budget = LAZY_PREFETCH_COUNT;
+        for (Map.Entry<String, Circle> entry : nodeMap.entrySet()) {
+            if (budget == 0) break;
+            if (expandedNodes.contains(entry.getKey())) continue;
+            Circle c = entry.getValue();
+            if (view.contains(graphPane.sceneToLocal(c.localToScene(c.getCenterX(), c.getCenterY())))) {
+                loadNeighborhood(entry.getKey(), 1);
+                budget--;
+            }
+        }
+    }
+
     // ===========================================================
     // Physics engine
     // ===========================================================
     private void startForceSimulation() {
         stopForceSimulation();
-        forceTimeline = new Timeline(new KeyFrame(Duration.seconds(timeStep), e -> stepForces()));
+        forceTimeline = new Timeline(new KeyFrame(Duration.seconds(layout.timeStep()), e -> stepForces()));
         forceTimeline.setCycleCount(Animation.INDEFINITE);
         forceTimeline.play();
     }
@@ -422,81 +771,14 @@ public class MainController {
     }
 
     private void stepForces() {
-        if (physNodes.isEmpty()) return;
-
-        // 1) Repulsion (all-pairs)
-        List<NodeBody> nodes = new ArrayList<>(physNodes.values());
-        for (int i = 0; i < nodes.size(); i++) {
-            NodeBody ni = nodes.get(i);
-            double fx = 0, fy = 0;
-
-            for (int j = 0; j < nodes.size(); j++) {
-                if (i == j) continue;
-                NodeBody nj = nodes.get(j);
-
-                double dx = ni.x() - nj.x();
-                double dy = ni.y() - nj.y();
-                double dist2 = dx * dx + dy * dy + 0.01; // avoid div-by-zero
-                double dist = Math.sqrt(dist2);
-
-                // Coulomb repulsion: F = k / r^2
-                double force = repulsionK / dist2;
-                force = Math.min(force, repelClamp);
-
-                fx += force * (dx / dist);
-                fy += force * (dy / dist);
-            }
-
-            // Euler integrate velocities with damping
-            ni.vx = (ni.vx + (fx / ni.mass) * timeStep) * damping;
-            ni.vy = (ni.vy + (fy / ni.mass) * timeStep) * damping;
-        }
-
-        // 2) Springs (edges)
-        for (EdgeBody e : physEdges) {
-            NodeBody a = e.a, b = e.b;
-            double dx = b.x() - a.x();
-            double dy = b.y() - a.y();
-            double dist = Math.sqrt(dx * dx + dy * dy) + 0.001;
-            double stretch = dist - e.restLen;
-
-            // Hooke: F = k * stretch along the direction
-            double fx = e.k * stretch * (dx / dist);
-            double fy = e.k * stretch * (dy / dist);
-
-            // Apply equal and opposite forces
-            a.vx += fx * timeStep;
-            a.vy += fy * timeStep;
-            b.vx -= fx * timeStep;
-            b.vy -= fy * timeStep;
-        }
-
-        // 3) Integrate positions + soft bounds
-        double pad = 80;
-        double w = Math.max(graphPane.getWidth(), 600);
-        double h = Math.max(graphPane.getHeight(), 400);
-
-        for (NodeBody n : physNodes.values()) {
-            // clamp speed
-            double speed = Math.sqrt(n.vx * n.vx + n.vy * n.vy);
-            if (speed > maxSpeed) {
-                n.vx = n.vx / speed * maxSpeed;
-                n.vy = n.vy / speed * maxSpeed;
-            }
-
-            double nx = n.x() + n.vx * timeStep;
-            double ny = n.y() + n.vy * timeStep;
-
-            // soft bounds with bounce
-            if (nx < pad) { nx = pad; n.vx *= -0.4; }
-            if (nx > w - pad) { nx = w - pad; n.vx *= -0.4; }
-            if (ny < pad) { ny = pad; n.vy *= -0.4; }
-            if (ny > h - pad) { ny = h - pad; n.vy *= -0.4; }
+        if (layout.isEmpty()) return;
+        layout.step(Math.max(graphPane.getWidth(), 600), Math.max(graphPane.getHeight(), 400));
 
-            n.set(nx, ny);
-        }
+        for (NodeBody n : physNodes.values()) n.syncCircle();
+        syncEdgeLines();
+    }
 
-        // 4) Update edge endpoints
+    private void syncEdgeLines() {
         for (EdgeBody e : physEdges) {
             e.line.setStartX(e.a.x());
             e.line.setStartY(e.a.y());
@@ -534,30 +816,30 @@ public class MainController {
     }
 
     private void highlightPDFSection(String fileName) {
-        String text = textAreaContent.getText();
-        int index = text.indexOf("=== " + fileName + " ===");
-        if (index >= 0) {
-            textAreaContent.positionCaret(index);
-            textAreaContent.selectRange(index, Math.min(text.length(), index + fileName.length() + 20));
-            textAreaContent.setStyle("""
-                -fx-highlight-fill: rgba(90,150,255,0.5);
-                -fx-highlight-text-fill: black;
-                -fx-control-inner-background: #1a1f2b;
-                -fx-text-fill: #f2f2f2;
-            """);
-        }
+        if (documentViewer.showDocument(fileName))
+            editorTabs.getSelectionModel().select(documentsTab);
     }
 
     // ===========================================================
     // TOOLBAR + EDITOR ACTIONS
     // ===========================================================
     @FXML private void onClearClicked() {
+        documentViewer.clear();
         textAreaContent.clear();
-        graphGroup.getChildren().clear();
+        clearGraph();
+        subgraphLoader = null;
         stopForceSimulation();
     }
     @FXML private void onCutClicked() { textAreaContent.cut(); }
-    @FXML private void onCopyClicked() { textAreaContent.copy(); }
+    @FXML private void onCopyClicked() {
+        if (!scratchTab.isSelected() && documentViewer.getSelectionModel().getSelectedItem() != null) {
+            ClipboardContent clip = new ClipboardContent();
+            clip.putString(documentViewer.selectedText());
+            Clipboard.getSystemClipboard().setContent(clip);
+        } else {
+            textAreaContent.copy();
+        }
+    }
     @FXML private void onPasteClicked() { textAreaContent.paste(); }
     @FXML private void onUndoClicked() { textAreaContent.undo(); }
     @FXML private void onRedoClicked() { textAreaContent.redo(); }
@@ -569,13 +851,31 @@ public class MainController {
         dialog.setHeaderText("Search in Text Area");
         dialog.setContentText("Enter keyword:");
         dialog.showAndWait().ifPresent(keyword -> {
-            String content = textAreaContent.getText().toLowerCase();
-            int count = content.split(keyword.toLowerCase(), -1).length - 1;
-            new Alert(Alert.AlertType.INFORMATION,
-                    "Found " + count + " occurrence(s) of \"" + keyword + "\"").showAndWait();
+            if (scratchTab.isSelected()) {
+                String content = textAreaContent.getText().toLowerCase();
+                showFindCount(keyword, content.split(keyword.toLowerCase(), -1).length - 1);
+                return;
+            }
+            // Reading every page can take a while, so search on a worker over a snapshot of the text
+            documentViewer.search(keyword, pageSnapshot())
+                    .whenComplete((result, err) -> Platform.runLater(() -> {
+                        if (err != null) {
+                            err.printStackTrace();
+                            new Alert(Alert.AlertType.ERROR, "⚠ Search failed:\n" + err.getMessage()).showAndWait();
+                            return;
+                        }
+                        if (!documentViewer.isCurrent(result)) return; // documents changed meanwhile
+                        documentViewer.select(result); // jump to the next page containing it
+                        showFindCount(keyword, result.count());
+                    }));
         });
     }
 
+    private static void showFindCount(String keyword, int count) {
+        new Alert(Alert.AlertType.INFORMATION,
+                "Found " + count + " occurrence(s) of \"" + keyword + "\"").showAndWait();
+    }
+
     @FXML
     private void onHighlightClicked() {
         String selected = textAreaContent.getSelectedText();
@@ -598,15 +898,356 @@ public class MainController {
             FileChooser fileChooser = new FileChooser();
             fileChooser.setInitialFileName("output.txt");
             File file = fileChooser.showSaveDialog(null);
-            if (file != null)
+            if (file == null) return;
+            if (scratchTab.isSelected()) {
                 java.nio.file.Files.writeString(file.toPath(), textAreaContent.getText());
+                return;
+            }
+            // Stream page by page rather than building one string of every document
+            try (java.io.Writer out = java.nio.file.Files.newBufferedWriter(file.toPath())) {
+                for (String name : documentViewer.documentNames()) {
+                    out.write("=== " + name + " ===\n");
+                    for (int p = 0, pages = documentViewer.pageCount(name); p < pages; p++) out.write(loadPage(name, p));
+                    out.write("\n\n");
+                }
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /** 🗜 Export loaded documents as a compressed, page-addressable corpus file */
+    @FXML
+    private void onExportCorpusClicked() {
+        if (documentViewer.isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "🗜 Load some PDFs before exporting a corpus.").showAndWait();
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialFileName("corpus.dtxc");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("DeTextion Corpus", "*.dtxc"));
+        File file = fileChooser.showSaveDialog(null);
+        if (file == null) return;
+
+        // Documents restored from a workspace have no extracted pages in memory; read those from it
+        List<String> docs = new ArrayList<>(documentViewer.documentNames());
+        Map<String, List<String>> loaded = new HashMap<>(pdfPages);
+        CorpusReader corpus = workspaceCorpus;
+        CompletableFuture
+                .runAsync(() -> {
+                    try (CorpusWriter writer = new CorpusWriter(file.toPath())) {
+                        for (String name : docs)
+                            writer.addDocument(name, loaded.containsKey(name) ? loaded.get(name) : readPages(corpus, name));
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((v, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to export corpus:\n" + err.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.INFORMATION, "✅ Exported " + docs.size() + " document(s) to " + file.getName()).showAndWait();
+                    }
+                }));
+    }
+
+    /** 📤 Export the document graph as it is drawn — positions, weights and shared keywords */
+    @FXML
+    private void onExportGraphClicked() {
+        if (physNodes.isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "📤 Build a document graph before exporting it.").showAndWait();
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialFileName("graph.graphml");
+        for (GraphExchange.Format f : GraphExchange.Format.values())
+            fileChooser.getExtensionFilters().add(graphFilter(f));
+        File file = fileChooser.showSaveDialog(null);
+        if (file == null) return;
+        GraphExchange.Format format = GraphExchange.Format.forFile(file.toPath());
+        if (format == null) format = graphFormat(fileChooser.getSelectedExtensionFilter());
+        if (format == null) format = GraphExchange.Format.GRAPHML;
+
+        // Snapshot on the FX thread; the layout keeps moving while the file is written
+        Map<String, double[]> positions = new LinkedHashMap<>();
+        physNodes.forEach((name, body) -> positions.put(name, new double[] { body.x(), body.y() }));
+        List<GraphEdge> edges = new ArrayList<>(physEdges.size());
+        for (EdgeBody e : physEdges) edges.add(e.data);
+
+        GraphExchange.Format chosen = format;
+        CompletableFuture
+                .runAsync(() -> {
+                    try (GraphExchange.GraphSink sink = GraphExchange.writer(file.toPath(), chosen)) {
+                        for (Map.Entry<String, double[]> n : positions.entrySet())
+                            sink.node(n.getKey(), n.getValue()[0], n.getValue()[1]);
+                        for (GraphEdge e : edges) sink.edge(e);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((v, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to export graph:\n" + err.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.INFORMATION, "✅ Exported " + positions.size() + " node(s) and "
+                                + edges.size() + " edge(s) to " + file.getName()).showAndWait();
+                    }
+                }));
+    }
+
+    /** 📥 Draw a graph from a GraphML, GEXF or JSON Lines file, keeping its saved layout */
+    @FXML
+    private void onImportGraphClicked() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph files", "*.graphml", "*.gexf", "*.jsonl"));
+        for (GraphExchange.Format f : GraphExchange.Format.values())
+            fileChooser.getExtensionFilters().add(graphFilter(f));
+        File file = fileChooser.showOpenDialog(null);
+        if (file == null) return;
+        GraphExchange.Format format = GraphExchange.Format.forFile(file.toPath());
+        if (format == null) format = graphFormat(fileChooser.getSelectedExtensionFilter());
+        if (format == null) format = GraphExchange.Format.GRAPHML;
+
+        Map<String, double[]> positions = new LinkedHashMap<>();
+        List<GraphEdge> edges = new ArrayList<>();
+        GraphExchange.Format chosen = format;
+        CompletableFuture
+                .runAsync(() -> {
+                    try {
+                        GraphExchange.read(file.toPath(), chosen,
+                                new GraphExchange.GraphVisitor() {
+                                    @Override
+                                    public void node(String id, double x, double y) {
+                                        positions.put(id, new double[] { x, y });
+                                    }
+
+                                    @Override
+                                    public void edge(GraphEdge edge) {
+                                        edges.add(edge);
+                                    }
+                                });
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((v, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to import graph:\n" + err.getMessage()).showAndWait();
+                        return;
+                    }
+                    showImportedGraph(positions, edges);
+                }));
+    }
+
+    /** Replaces the drawn graph; nodes without a saved position start on a circle and the physics settles them. */
+    private void showImportedGraph(Map<String, double[]> positions, List<GraphEdge> edges) {
+        loadGeneration++; // an ingest still running must not redraw over the imported graph
+        ingesting = false;
+        ingestQueue.set(0);
+        extractingNames.clear();
+        stopForceSimulation();
+        subgraphLoader = null;
+        // Edges may name endpoints the file never declared
+        for (GraphEdge e : edges) {
+            positions.putIfAbsent(e.source(), new double[] { Double.NaN, Double.NaN });
+            positions.putIfAbsent(e.target(), new double[] { Double.NaN, Double.NaN });
+        }
+        generateConnectionGraph(positions.keySet(), edges);
+
+        boolean settled = true;
+        for (Map.Entry<String, double[]> n : positions.entrySet()) {
+            double[] pos = n.getValue();
+            if (Double.isNaN(pos[0]) || Double.isNaN(pos[1])) settled = false;
+            else physNodes.get(n.getKey()).set(pos[0], pos[1]);
+        }
+        syncEdgeLines();
+        if (settled) {
+            // The saved layout is already settled — skip the warm-up; the next graph drawn starts it again
+            stopForceSimulation();
+        }
+    }
+
+    private static FileChooser.ExtensionFilter graphFilter(GraphExchange.Format format) {
+        String description = switch (format) {
+            case GRAPHML -> "GraphML";
+            case GEXF -> "GEXF";
+            case JSONL -> "JSON Lines";
+        };
+        return new FileChooser.ExtensionFilter(description, "*." + format.extension());
+    }
+
+    /** The format a chooser filter stands for, or null for the combined one. */
+    private static GraphExchange.Format graphFormat(FileChooser.ExtensionFilter filter) {
+        if (filter == null || filter.getExtensions().size() != 1) return null;
+        for (GraphExchange.Format f : GraphExchange.Format.values())
+            if (filter.getExtensions().get(0).equals("*." + f.extension())) return f;
+        return null;
+    }
+
+    // ===========================================================
+    // WORKSPACE SNAPSHOTS
+    // ===========================================================
+    @FXML
+    private void onSaveWorkspaceClicked() {
+        if (pdfKeywords.isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "💼 Nothing to save yet — load some PDFs first.").showAndWait();
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialFileName("session.dtxw");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("DeTextion Workspace", "*.dtxw"));
+        File file = fileChooser.showSaveDialog(null);
+        if (file == null) return;
+
+        CorpusReader previous = workspaceCorpus;
+        if (previous != null && previous.file().toAbsolutePath().normalize()
+                .equals(file.toPath().toAbsolutePath().normalize())) {
+            // Its text is read from the file being replaced, and a mapped file can't be moved over on Windows
+            new Alert(Alert.AlertType.INFORMATION,
+                    "💾 " + file.getName() + " is the open workspace — save it under a new name.").showAndWait();
+            return;
+        }
+
+        Map<String, Set<String>> docs = new LinkedHashMap<>(pdfKeywords);
+        Map<String, Integer> freq = new HashMap<>(keywordFrequency);
+        Map<String, WorkspaceSnapshot.Position> positions = new HashMap<>();
+        physNodes.forEach((name, body) -> positions.put(name, new WorkspaceSnapshot.Position(body.x(), body.y())));
+        Map<String, List<String>> loaded = new HashMap<>(pdfPages);
+
+        CompletableFuture
+                .runAsync(() -> {
+                    try {
+                        WorkspaceSnapshot.save(file.toPath(), docs, freq, positions,
+                                name -> loaded.containsKey(name) ? loaded.get(name) : readPages(previous, name));
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((v, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to save workspace:\n" + err.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.INFORMATION, "✅ Workspace saved to " + file.getName()).showAndWait();
+                    }
+                }));
+    }
+
+    @FXML
+    private void onOpenWorkspaceClicked() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("DeTextion Workspace", "*.dtxw"));
+        File file = fileChooser.showOpenDialog(null);
+        if (file == null) return;
+
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return WorkspaceSnapshot.open(file.toPath());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((ws, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to open workspace:\n" + err.getMessage()).showAndWait();
+                        return;
+                    }
+                    restoreWorkspace(ws);
+                }));
+    }
+
+    /** Redraws graph and chart data from the snapshot; text stays on disk until a document is opened. */
+    private void restoreWorkspace(WorkspaceSnapshot.Workspace ws) {
+        loadGeneration++;
+        keywordIndex = null;
+        topicModel = null;
+        ingesting = false;
+        ingestQueue.set(0);
+        extractingNames.clear();
+        stopForceSimulation();
+        subgraphLoader = null;
+        pdfKeywords.clear();
+        keywordFrequency.clear();
+        pdfPages.clear();
+        closeWorkspaceCorpus();
+        documentViewer.clear();
+
+        workspaceCorpus = ws.corpus();
+        pdfKeywords.putAll(ws.documentKeywords());
+        keywordFrequency.putAll(ws.keywordFrequency());
+        for (String name : ws.documentKeywords().keySet()) {
+            int doc = workspaceCorpus.indexOf(name);
+            if (doc >= 0) documentViewer.addDocument(name, workspaceCorpus.pageCount(doc));
+        }
+
+        if (pdfKeywords.size() == 1) {
+            generateKeywordGraph(pdfKeywords);
+            return;
+        }
+
+        generateConnectionGraph(pdfKeywords.keySet(), GraphEdge.fromSharedKeywords(pdfKeywords));
+        if (!ws.positions().isEmpty()) {
+            // The saved layout is already settled — place nodes directly and skip the physics warm-up
+            stopForceSimulation();
+            ws.positions().forEach((name, pos) -> {
+                NodeBody body = physNodes.get(name);
+                if (body != null) body.set(pos.x(), pos.y());
+            });
+            syncEdgeLines();
+        }
+    }
+
+    /** One page of a document: from memory if it was extracted this session, else from the open workspace. */
+    private String loadPage(String name, int page) throws IOException {
+        List<String> pages = pdfPages.get(name);
+        if (pages != null) return pages.get(page);
+        if (workspaceCorpus == null) return "";
+        int doc = workspaceCorpus.indexOf(name);
+        return doc < 0 ? "" : workspaceCorpus.pageText(doc, page);
+    }
+
+    /** Page text as loaded right now, readable from a worker thread while the FX thread moves on. */
+    private DocumentViewer.PageLoader pageSnapshot() {
+        Map<String, List<String>> loaded = new HashMap<>(pdfPages);
+        CorpusReader corpus = workspaceCorpus;
+        return (name, page) -> {
+            List<String> pages = loaded.get(name);
+            if (pages != null) return pages.get(page);
+            int doc = corpus == null ? -1 : corpus.indexOf(name);
+            return doc < 0 ? "" : corpus.pageText(doc, page);
+        };
+    }
+
+    private static List<String> readPages(CorpusReader corpus, String name) throws IOException {
+        if (corpus == null) return List.of();
+        int doc = corpus.indexOf(name);
+        if (doc < 0) return List.of();
+        List<String> pages = new ArrayList<>(corpus.pageCount(doc));
+        for (int p = 0; p < corpus.pageCount(doc); p++) pages.add(corpus.pageText(doc, p));
+        return pages;
+    }
+
+    private void closeWorkspaceCorpus() {
+        if (workspaceCorpus == null) return;
+        try {
+            workspaceCorpus.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        workspaceCorpus = null;
+    }
+
     @FXML
     private void openKeywordChart() {
+        if (ingesting) {
+            KeywordFrequencyChart.shared().show(); // live: fills in as documents finish extracting
+            return;
+        }
         if (keywordFrequency.isEmpty()) {
             new Alert(Alert.AlertType.INFORMATION, "📊 No keyword data available!").showAndWait();
             return;
@@ -614,6 +1255,117 @@ public class MainController {
         KeywordFrequencyChart.showChart(keywordFrequency);
     }
 
+    @FXML
+    private void onPersistGraphClicked() {
+        if (pdfKeywords.isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "🕸 Load some PDFs before saving the graph.").showAndWait();
+            return;
+        }
+
+        // Snapshot on the FX thread; the write itself runs in the background
+        Map<String, Set<String>> docs = new HashMap<>(pdfKeywords);
+        Map<String, Integer> freq = new HashMap<>(keywordFrequency);
+
+        CompletableFuture
+                .supplyAsync(() -> new GraphWriter(GraphConnector.getDriver()).writeCorpus(docs, freq))
+                .whenComplete((stats, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to save graph to Neo4j:\n" + err.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.INFORMATION, "✅ Saved to Neo4j: " + stats).showAndWait();
+                    }
+                }));
+    }
+
+    @FXML
+    private void onStoreDocumentsClicked() {
+        if (documentViewer.isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "🗄 Load some PDFs before storing them.").showAndWait();
+            return;
+        }
+
+        List<String> docs = new ArrayList<>(documentViewer.documentNames());
+        Map<String, List<String>> loaded = new HashMap<>(pdfPages);
+        CorpusReader corpus = workspaceCorpus;
+
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        List<DocumentRepository.DocumentRecord> records = new ArrayList<>(docs.size());
+                        for (String name : docs) {
+                            List<String> pages = loaded.containsKey(name) ? loaded.get(name) : readPages(corpus, name);
+                            String text = String.join("", pages);
+                            records.add(new DocumentRepository.DocumentRecord(name, pages.size(), text, TextInsights.countTerms(text)));
+                        }
+                        return new DocumentRepository().ingest(records).size();
+                    } catch (IOException | SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((count, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to store documents:\n" + err.getMessage()).showAndWait();
+                    } else {
+                        new Alert(Alert.AlertType.INFORMATION, "✅ Stored " + count + " document(s) in PostgreSQL.").showAndWait();
+                    }
+                }));
+    }
+
+    /** Rebuilds chart and graph data for the stored corpus from indexed aggregate queries — no text is read. */
+    @FXML
+    private void onOpenStoredCorpusClicked() {
+        CorpusQueries queries = new CorpusQueries();
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return new StoredCorpus(queries.documentKeywords(),
+                                queries.topCorpusTerms(STORED_CHART_TERMS),
+                                queries.sharedTermCounts(1));
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .whenComplete((corpus, err) -> Platform.runLater(() -> {
+                    if (err != null) {
+                        err.printStackTrace();
+                        new Alert(Alert.AlertType.ERROR, "⚠ Failed to open stored corpus:\n" + err.getMessage()).showAndWait();
+                        return;
+                    }
+                    showStoredCorpus(corpus);
+                }));
+    }
+
+    private record StoredCorpus(Map<String, Set<String>> keywords, Map<String, Integer> totals,
+                                List<CorpusQueries.DocumentPair> pairs) {}
+
+    private void showStoredCorpus(StoredCorpus corpus) {
+        loadGeneration++;
+        keywordIndex = null;
+        topicModel = null;
+        ingesting = false;
+        ingestQueue.set(0);
+        extractingNames.clear();
+        stopForceSimulation();
+        subgraphLoader = null;
+        pdfKeywords.clear();
+        keywordFrequency.clear();
+        pdfPages.clear();
+        closeWorkspaceCorpus();
+        documentViewer.clear();
+
+        pdfKeywords.putAll(corpus.keywords());
+        keywordFrequency.putAll(corpus.totals());
+
+        List<GraphEdge> edges = new ArrayList<>(corpus.pairs().size());
+        for (CorpusQueries.DocumentPair p : corpus.pairs())
+            edges.add(new GraphEdge(p.docA(), p.docB(), p.sharedCount(), p.sharedTerms()));
+
+        if (pdfKeywords.size() == 1) generateKeywordGraph(pdfKeywords);
+        else generateConnectionGraph(pdfKeywords.keySet(), edges);
+    }
+
     @FXML
     private void openNotes() {
         try {
@@ -644,51 +1396,52 @@ public class MainController {
 
     @FXML
     private void onSummarizeText() {
-        String content = textAreaContent.getSelectedText();
-        if (content.isEmpty()) content = textAreaContent.getText();
-
-        if (content.isBlank()) {
-            new Alert(Alert.AlertType.INFORMATION, "No text available to summarize.").showAndWait();
-            return;
-        }
-
-        String summary = generateSummary(content);
-        TextArea summaryArea = new TextArea(summary);
-        summaryArea.setWrapText(true);
-        summaryArea.setEditable(false);
-        summaryArea.setPrefHeight(300);
-
-        Alert summaryAlert = new Alert(Alert.AlertType.INFORMATION);
-        summaryAlert.setTitle("🧠 AI Summary");
-        summaryAlert.setHeaderText("Extractive Summary:");
-        summaryAlert.getDialogPane().setContent(summaryArea);
-        summaryAlert.showAndWait();
-    }
-
-    private String generateSummary(String text) {
-        String[] sentences = text.split("(?<=[.!?])\\s+");
-        if (sentences.length <= 3) return text;
-
-        Map<String, Integer> freq = new HashMap<>();
-        String[] words = text.toLowerCase().split("\\W+");
-        for (String w : words) {
-            if (w.length() < 4) continue;
-            freq.put(w, freq.getOrDefault(w, 0) + 1);
-        }
-
-        Map<String, Double> scores = new HashMap<>();
-        for (String s : sentences) {
-            double score = 0;
-            for (String w : s.toLowerCase().split("\\W+"))
-                score += freq.getOrDefault(w, 0);
-            scores.put(s, score);
+        List<Object> inputs;
+        AnalysisTasks.Work<String> work;
+        if (scratchTab.isSelected() || documentViewer.isEmpty()) {
+            String selected = textAreaContent.getSelectedText();
+            String content = selected.isEmpty() ? textAreaContent.getText() : selected;
+            inputs = List.of("text", content);
+            work = progress -> TextInsights.summarize(content, progress);
+        } else if (documentViewer.getSelectionModel().getSelectedItem() != null) {
+            String content = documentViewer.selectedText();
+            inputs = List.of("text", content);
+            work = progress -> TextInsights.summarize(content, progress);
+        } else {
+            // Whole corpus: gather the text on the worker; the key is just the loaded document set
+            List<String> names = new ArrayList<>(documentViewer.documentNames());
+            Map<String, List<String>> loaded = new HashMap<>(pdfPages);
+            CorpusReader corpus = workspaceCorpus;
+            inputs = List.of("documents", loadGeneration, names);
+            work = progress -> {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < names.size() && !progress.isCancelled(); i++) {
+                    String name = names.get(i);
+                    List<String> pages = loaded.containsKey(name) ? loaded.get(name) : readPages(corpus, name);
+                    for (String page : pages) sb.append(page);
+                    sb.append("\n\n");
+                    progress.update(i + 1, names.size() * 2L);
+                }
+                return TextInsights.summarize(sb.toString(), progress);
+            };
         }
 
-        return scores.entrySet().stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(3)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.joining(" "));
+        runAnalysis("summarize", inputs, work, summary -> {
+            if (summary.isBlank()) {
+                new Alert(Alert.AlertType.INFORMATION, "No text available to summarize.").showAndWait();
+                return;
+            }
+            TextArea summaryArea = new TextArea(summary);
+            summaryArea.setWrapText(true);
+            summaryArea.setEditable(false);
+            summaryArea.setPrefHeight(300);
+
+            Alert summaryAlert = new Alert(Alert.AlertType.INFORMATION);
+            summaryAlert.setTitle("🧠 AI Summary");
+            summaryAlert.setHeaderText("Extractive Summary:");
+            summaryAlert.getDialogPane().setContent(summaryArea);
+            summaryAlert.showAndWait();
+        });
     }
 
     @FXML
@@ -713,24 +1466,30 @@ public class MainController {
 
         String pdfA = pdfAOpt.get();
         String pdfB = pdfBOpt.get();
-        Set<String> setA = pdfKeywords.get(pdfA);
-        Set<String> setB = pdfKeywords.get(pdfB);
-
-        Set<String> shared = new HashSet<>(setA);
-        shared.retainAll(setB);
-
-        double similarity = 100.0 * shared.size() / Math.sqrt(setA.size() * setB.size());
-
-        String result = String.format("📄 %s ↔ %s\nSimilarity: %.2f%%\n\nShared Keywords:\n%s",
-                pdfA, pdfB, similarity, String.join(", ", shared));
-
-        TextArea area = new TextArea(result);
-        area.setWrapText(true);
-        area.setEditable(false);
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("📊 PDF Similarity");
-        alert.getDialogPane().setContent(area);
-        alert.showAndWait();
+        List<String> setA = new ArrayList<>(new TreeSet<>(pdfKeywords.get(pdfA)));
+        List<String> setB = new ArrayList<>(new TreeSet<>(pdfKeywords.get(pdfB)));
+        double[] mixtureA = topicModel == null ? null : topicModel.mixture(pdfA);
+        double[] mixtureB = topicModel == null ? null : topicModel.mixture(pdfB);
+
+        runAnalysis("compare", List.of(pdfA, pdfB, setA, setB, Arrays.toString(mixtureA), Arrays.toString(mixtureB)), progress -> {
+            Set<String> shared = new LinkedHashSet<>(setA);
+            shared.retainAll(new HashSet<>(setB));
+
+            double similarity = 100.0 * shared.size() / Math.sqrt(setA.size() * setB.size());
+            String topics = mixtureA == null || mixtureB == null ? ""
+                    : String.format("\nTopic similarity: %.2f%%", 100 * TopicModel.similarity(mixtureA, mixtureB));
+
+            return String.format("📄 %s ↔ %s\nSimilarity: %.2f%%%s\n\nShared Keywords:\n%s",
+                    pdfA, pdfB, similarity, topics, String.join(", ", shared));
+        }, result -> {
+            TextArea area = new TextArea(result);
+            area.setWrapText(true);
+            area.setEditable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("📊 PDF Similarity");
+            alert.getDialogPane().setContent(area);
+            alert.showAndWait();
+        });
     }
 
     @FXML
@@ -740,44 +1499,133 @@ public class MainController {
             return;
         }
 
+        // Clusters form around the first word of each group, so keep the order clustering always used
         List<String> words = new ArrayList<>(keywordFrequency.keySet());
-        Map<String, List<String>> clusters = new LinkedHashMap<>();
-
-        for (String word : words) {
-            boolean added = false;
-            for (String key : clusters.keySet()) {
-                if (areSimilar(word, key)) {
-                    clusters.get(key).add(word);
-                    added = true;
-                    break;
-                }
+
+        runAnalysis("cluster", List.of(words), progress -> {
+            Map<String, List<String>> clusters = TextInsights.clusterKeywords(words, progress);
+
+            StringBuilder sb = new StringBuilder("🔠 Keyword Clusters:\n\n");
+            for (var entry : clusters.entrySet()) {
+                sb.append("• ").append(entry.getKey()).append(" → ").append(entry.getValue()).append("\n");
             }
-            if (!added) clusters.put(word, new ArrayList<>(List.of(word)));
-        }
+            return sb.toString();
+        }, result -> {
+            TextArea area = new TextArea(result);
+            area.setEditable(false);
+            area.setWrapText(true);
+
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("🤖 Keyword Clustering");
+            alert.getDialogPane().setContent(area);
+            alert.showAndWait();
+        });
+    }
 
-        StringBuilder sb = new StringBuilder("🔠 Keyword Clusters:\n\n");
-        for (var entry : clusters.entrySet()) {
-            sb.append("• ").append(entry.getKey()).append(" → ").append(entry.getValue()).append("\n");
+    /** Fits a topic model over every loaded document, lists the topics and colors document nodes by topic. */
+    @FXML
+    private void onFindTopicsClicked() {
+        List<String> names = new ArrayList<>(documentViewer.documentNames());
+        if (names.size() < 2) {
+            new Alert(Alert.AlertType.INFORMATION, "Load at least two PDFs to find topics.").showAndWait();
+            return;
         }
+        int topics = Math.max(2, Math.min(TopicModel.DEFAULT_TOPICS, names.size()));
+        Map<String, List<String>> loaded = new HashMap<>(pdfPages);
+        CorpusReader corpus = workspaceCorpus;
+        int generation = loadGeneration;
+        runAnalysis("topics", List.of("documents", generation, names, topics), progress -> TopicModel.fit(names,
+                name -> String.join("", loaded.containsKey(name) ? loaded.get(name) : readPages(corpus, name)),
+                TopicModel.Options.defaults(topics), progress), model -> {
+            if (generation != loadGeneration) return; // fitted to documents that have since been replaced
+            topicModel = model;
+            physNodes.forEach((name, node) -> {
+                int topic = model.dominantTopic(name);
+                if (topic >= 0) node.circle.setFill(topicColor(topic));
+            });
+
+            Map<Integer, List<String>> members = new TreeMap<>();
+            for (String name : names) members.computeIfAbsent(model.dominantTopic(name), k -> new ArrayList<>()).add(name);
+            StringBuilder sb = new StringBuilder("🧩 Topics (documents colored by their main topic):\n");
+            for (TopicModel.Topic t : model.topics()) {
+                List<String> docs = members.getOrDefault(t.id(), List.of());
+                sb.append("\n• Topic ").append(t.id() + 1).append(" — ")
+                  .append(t.words().stream().map(TopicModel.TopicWord::word).collect(Collectors.joining(", ")))
+                  .append("\n   ").append(docs.size()).append(" document(s)");
+                if (!docs.isEmpty()) sb.append(": ").append(String.join(", ", docs.subList(0, Math.min(5, docs.size()))));
+                if (docs.size() > 5) sb.append(", …");
+                sb.append('\n');
+            }
 
-        TextArea area = new TextArea(sb.toString());
-        area.setEditable(false);
-        area.setWrapText(true);
+            TextArea area = new TextArea(sb.toString());
+            area.setEditable(false);
+            area.setWrapText(true);
+            area.setPrefHeight(400);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("🧩 Topics");
+            alert.getDialogPane().setContent(area);
+            alert.showAndWait();
+        });
+    }
 
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("🤖 Keyword Clustering");
-        alert.getDialogPane().setContent(area);
-        alert.showAndWait();
+    /** Evenly spaced hues, one per topic. */
+    private Color topicColor(int topic) {
+        int topics = topicModel == null ? TopicModel.DEFAULT_TOPICS : topicModel.topics().size();
+        return Color.hsb(360.0 * topic / topics, 0.6, 0.95);
     }
 
-    private boolean areSimilar(String a, String b) {
-        if (Math.abs(a.length() - b.length()) > 3) return false;
-        int commonPrefix = 0;
-        for (int i = 0; i < Math.min(a.length(), b.length()); i++) {
-            if (a.charAt(i) == b.charAt(i)) commonPrefix++;
-            else break;
+    /** Maps the selected (or only, or chosen) document's keywords by how often they occur near each other. */
+    @FXML
+    private void onKeywordMapClicked() {
+        List<String> names = new ArrayList<>(documentViewer.documentNames());
+        if (names.isEmpty()) {
+            new Alert(Alert.AlertType.INFORMATION, "Load a PDF to map its keywords.").showAndWait();
+            return;
         }
-        return (commonPrefix >= Math.min(a.length(), b.length()) / 2);
+        String selected = documentViewer.selectedDocument();
+        if (selected == null && names.size() == 1) selected = names.get(0);
+        if (selected == null) {
+            ChoiceDialog<String> dialog = new ChoiceDialog<>(names.get(0), names);
+            dialog.setTitle("Keyword Map");
+            dialog.setHeaderText("Choose the PDF to map:");
+            Optional<String> chosen = dialog.showAndWait();
+            if (chosen.isEmpty()) return;
+            selected = chosen.get();
+        }
+
+        String doc = selected;
+        List<String> pages = pdfPages.get(doc);
+        CorpusReader corpus = workspaceCorpus;
+        runAnalysis("cooccurrence", List.of(doc, loadGeneration), progress -> {
+            String text = String.join("", pages != null ? pages : readPages(corpus, doc));
+            return KeywordCooccurrence.build(text, KeywordCooccurrence.DEFAULT_TERMS, KeywordCooccurrence.DEFAULT_WINDOW,
+                    KeywordCooccurrence.DEFAULT_EDGES, KeywordCooccurrence.Ranking.PMI, progress);
+        }, graph -> generateCooccurrenceGraph(doc, graph));
+    }
+
+    /** Runs an analysis in the background; a repeat of the same action replaces the one in flight. */
+    private <T> void runAnalysis(String action, List<?> inputs, AnalysisTasks.Work<T> work, Consumer<T> onResult) {
+        Task<T> task = analysisTasks.submit(action, inputs, work, onResult, err -> {
+            err.printStackTrace();
+            new Alert(Alert.AlertType.ERROR, "⚠ Analysis failed:\n" + err.getMessage()).showAndWait();
+        });
+        analysisProgress.progressProperty().bind(task.progressProperty());
+    }
+
+    @FXML
+    private void onCancelAnalysisClicked() {
+        analysisTasks.cancelAll();
+    }
+
+    @FXML
+    private void onTogglePerfOverlayClicked() {
+        perfOverlay.toggle();
+    }
+
+    /** Applies to PDFs loaded from now on; what is already in the graph keeps its keywords. */
+    @FXML
+    private void togglePhraseKeywords() {
+        phraseKeywords = !phraseKeywords;
     }
 
 }
@@ -0,0 +1,105 @@
+package com.detextion.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * Custom JDK Flight Recorder events for the app's hot paths. They cost next to nothing unless a
+ * recording is running; to capture one from a slow session:
+ *
+ * <pre>
+ * java -XX:StartFlightRecording=filename=detextion.jfr,settings=profile ...
+ * jfr print --categories DeTextion detextion.jfr
+ * </pre>
+ *
+ * or attach later with {@code jcmd <pid> JFR.start}. All events are under the "DeTextion" category
+ * in JDK Mission Control.
+ */
+public final class PerfEvents {
+
+    private PerfEvents() {}
+
+    @Name("com.detextion.StartupPhase")
+    @Label("Startup Phase")
+    @Description("A milestone of application startup, such as the window being shown or a warm-up step finishing")
+    @Category({ "DeTextion", "Startup" })
+    public static final class StartupPhase extends Event {
+        @Label("Phase") public String phase;
+        @Label("Since Launch") @Timespan(Timespan.MILLISECONDS) public long sinceLaunch;
+        @Label("Took") @Timespan(Timespan.NANOSECONDS) public long took;
+    }
+
+    @Name("com.detextion.PdfExtraction")
+    @Label("PDF Extraction")
+    @Description("Loading and text-stripping one PDF")
+    @Category({ "DeTextion", "Ingestion" })
+    public static final class PdfExtraction extends Event {
+        @Label("Document") public String document;
+        @Label("Pages") public int pages;
+        @Label("Characters") public long characters;
+    }
+
+    @Name("com.detextion.PageExtraction")
+    @Label("Page Extraction")
+    @Description("Text-stripping one page of a PDF")
+    @Category({ "DeTextion", "Ingestion" })
+    public static final class PageExtraction extends Event {
+        @Label("Document") public String document;
+        @Label("Page") public int page;
+        @Label("Characters") public long characters;
+    }
+
+    @Name("com.detextion.Tokenization")
+    @Label("Tokenization")
+    @Description("Splitting a text into terms and counting them; throughput is characters / duration")
+    @Category({ "DeTextion", "Analysis" })
+    public static final class Tokenization extends Event {
+        @Label("Characters") public long characters;
+        @Label("Distinct Terms") public int terms;
+    }
+
+    @Name("com.detextion.KeywordCount")
+    @Label("Keyword Count")
+    @Description("Picking a document's top keywords from its term counts")
+    @Category({ "DeTextion", "Analysis" })
+    public static final class KeywordCount extends Event {
+        @Label("Terms") public int terms;
+        @Label("Keywords") public int keywords;
+    }
+
+    @Name("com.detextion.Similarity")
+    @Label("Similarity")
+    @Description("Comparing documents by shared keywords")
+    @Category({ "DeTextion", "Analysis" })
+    public static final class Similarity extends Event {
+        @Label("Operation") public String operation;
+        @Label("Documents") public int documents;
+        @Label("Edges") public int edges;
+    }
+
+    @Name("com.detextion.PhysicsStep")
+    @Label("Physics Step")
+    @Description("One step of the force-directed graph layout")
+    @Category({ "DeTextion", "Graph" })
+    public static final class PhysicsStep extends Event {
+        @Label("Nodes") public int nodes;
+        @Label("Springs") public int springs;
+    }
+
+    @Name("com.detextion.DbCall")
+    @Label("Database Call")
+    @Description("A call into SQLite, PostgreSQL or Neo4j")
+    @Category({ "DeTextion", "Storage" })
+    public static final class DbCall extends Event {
+        @Label("Store") public String store;
+        @Label("Operation") public String operation;
+        @Label("Rows") public long rows;
+
+        public static DbCall begin(String store, String operation) {
+            DbCall event = new DbCall();
+            event.store = store;
+            event.operation = operation;
+            event.begin();
+            return event;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.detextion.diagnostics;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * A small always-on-top readout of {@link PerfStats}: frame rate, the last physics step, queue
+ * depths and cache hit rates. Refreshes twice a second while shown and stops its timer when hidden.
+ */
+public final class PerfOverlay extends Label {
+
+    private static final long REFRESH_NANOS = 500_000_000L;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        private long windowStart;
+        private int frames;
+
+        @Override
+        public void handle(long now) {
+            frames++;
+            if (windowStart == 0) windowStart = now;
+            long elapsed = now - windowStart;
+            if (elapsed < REFRESH_NANOS) return;
+            refresh(frames * 1e9 / elapsed);
+            frames = 0;
+            windowStart = now;
+        }
+    };
+
+    public PerfOverlay() {
+        getStyleClass().add("perf-overlay");
+        setMouseTransparent(true);
+        setVisible(false);
+        visibleProperty().addListener((obs, was, shown) -> {
+            if (shown) timer.start();
+            else timer.stop();
+        });
+    }
+
+    public void toggle() {
+        setVisible(!isVisible());
+    }
+
+    private void refresh(double fps) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("FPS        %5.1f%n", fps));
+        sb.append(String.format("Step       %5.2f ms (%d nodes)%n", PerfStats.lastStepMillis(), PerfStats.lastStepNodes()));
+        for (Map.Entry<String, IntSupplier> q : PerfStats.queues().entrySet())
+            sb.append(String.format("Queue      %s: %d%n", q.getKey(), q.getValue().getAsInt()));
+        for (Map.Entry<String, PerfStats.CacheCounter> c : PerfStats.caches().entrySet()) {
+            double rate = c.getValue().hitRate();
+            sb.append(Double.isNaN(rate)
+                    ? String.format("Cache      %s: –%n", c.getKey())
+                    : String.format("Cache      %s: %.0f%% of %d%n", c.getKey(), rate * 100, c.getValue().hits() + c.getValue().misses()));
+        }
+        setText(sb.toString().stripTrailing());
+    }
+}
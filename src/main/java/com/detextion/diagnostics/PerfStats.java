@@ -0,0 +1,63 @@
+package com.detextion.diagnostics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Live counters behind the performance overlay: the last physics step, named queue depths and
+ * cache hit rates. Cheap enough to update on every call; safe from any thread.
+ */
+public final class PerfStats {
+
+    private PerfStats() {}
+
+    /** Hit/miss counter for one cache. */
+    public static final class CacheCounter {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        public void hit() { hits.increment(); }
+        public void miss() { misses.increment(); }
+        public long hits() { return hits.sum(); }
+        public long misses() { return misses.sum(); }
+
+        /** Fraction of lookups that hit, or NaN before the first lookup. */
+        public double hitRate() {
+            long h = hits(), total = h + misses();
+            return total == 0 ? Double.NaN : (double) h / total;
+        }
+    }
+
+    private static volatile double lastStepMillis;
+    private static volatile int lastStepNodes;
+    private static final Map<String, IntSupplier> QUEUES = new ConcurrentSkipListMap<>();
+    private static final Map<String, CacheCounter> CACHES = new ConcurrentSkipListMap<>();
+
+    public static void physicsStep(long nanos, int nodes) {
+        lastStepMillis = nanos / 1e6;
+        lastStepNodes = nodes;
+    }
+
+    public static double lastStepMillis() { return lastStepMillis; }
+    public static int lastStepNodes() { return lastStepNodes; }
+
+    /** Registers (or replaces) a queue whose current depth the overlay polls. */
+    public static void queue(String name, IntSupplier depth) {
+        QUEUES.put(name, depth);
+    }
+
+    public static Map<String, IntSupplier> queues() {
+        return QUEUES;
+    }
+
+    /** The shared counter for {@code name}, created on first use. */
+    public static CacheCounter cache(String name) {
+        return CACHES.computeIfAbsent(name, n -> new CacheCounter());
+    }
+
+    public static Map<String, CacheCounter> caches() {
+        return CACHES;
+    }
+}
@@ -0,0 +1,45 @@
+package com.detextion.diagnostics;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Startup milestones, measured from JVM launch: window shown, interactive, each warm-up step and the
+ * first PDF extraction. Each phase is recorded once, as a {@link PerfEvents.StartupPhase} JFR event
+ * and — with {@code -Ddetextion.startup.report=true} — as a line on stdout.
+ */
+public final class StartupMetrics {
+
+    private static final long LAUNCH_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+    private static final boolean REPORT = Boolean.getBoolean("detextion.startup.report");
+    private static final Set<String> RECORDED = ConcurrentHashMap.newKeySet();
+
+    private StartupMetrics() {}
+
+    /** Milliseconds since the JVM was launched. */
+    public static long sinceLaunch() {
+        return System.currentTimeMillis() - LAUNCH_MILLIS;
+    }
+
+    public static void mark(String phase) {
+        mark(phase, 0);
+    }
+
+    /** Records {@code phase} the first time it is reached; {@code tookNanos} is the phase's own duration, if known. */
+    public static void mark(String phase, long tookNanos) {
+        if (!RECORDED.add(phase)) return;
+        long since = sinceLaunch();
+        PerfEvents.StartupPhase event = new PerfEvents.StartupPhase();
+        event.phase = phase;
+        event.sinceLaunch = since;
+        event.took = tookNanos;
+        event.commit();
+        if (REPORT) {
+            System.out.printf(tookNanos > 0 ? "[startup] %-24s at %6d ms (took %d ms)%n" : "[startup] %-24s at %6d ms%n",
+                    phase, since, tookNanos / 1_000_000);
+        }
+    }
+}
@@ -30,6 +30,10 @@ public class Note {
     }
 
     // Setters (optional, in case you want to update notes later)
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public void setTitle(String title) {
         this.title = title;
     }
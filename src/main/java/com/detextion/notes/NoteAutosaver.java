@@ -0,0 +1,143 @@
+package com.detextion.notes;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind autosave for notes.
+ *
+ * Edits are handed over with {@link #submit} and only the latest version of each note is kept, so
+ * a burst of keystrokes on one note collapses into a single upsert. Pending notes are written in one
+ * transaction on a background thread every {@code interval}, on {@link #flushAsync()}, and a final
+ * time on {@link #close()} or before the notes database closes at shutdown, whichever comes first.
+ * Callers never touch the disk, and {@code close()} doesn't wait for it either.
+ *
+ * Notes are identified by a key: the note's ID once it has one, otherwise a negative draft key from
+ * {@link #newDraftKey()}. The autosaver remembers which ID a draft was inserted as, so later edits
+ * to the same draft update that row instead of inserting duplicates.
+ */
+public class NoteAutosaver implements AutoCloseable {
+
+    public static final long DEFAULT_INTERVAL_MS = 2000;
+
+    private final NoteService noteService;
+    private final ScheduledExecutorService executor;
+    private final Map<Integer, Note> pending = new LinkedHashMap<>();             // guarded by this
+    private final Map<Integer, Integer> draftIds = new ConcurrentHashMap<>();     // draft key → inserted ID
+    private final AtomicInteger nextDraftKey = new AtomicInteger(-1);
+    private final BiConsumer<Integer, Note> onSaved;
+    private final Consumer<SQLException> onFailed;
+    private final Runnable finalFlush = this::flushQuietly; // one instance, so it can be unregistered
+    private final Object writeLock = new Object();
+    private volatile boolean closed;
+
+    /**
+     * @param onSaved  called on the autosave thread after each note is written, with its key and the saved note
+     * @param onFailed called on the autosave thread when a write fails; the notes stay queued for the next flush
+     */
+    public NoteAutosaver(NoteService noteService, long intervalMs, BiConsumer<Integer, Note> onSaved,
+                         Consumer<SQLException> onFailed) {
+        this.noteService = noteService;
+        this.onSaved = onSaved;
+        this.onFailed = onFailed;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notes-autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        executor.execute(() -> {
+            try {
+                NoteDatabase.getInstance().runBeforeClose(finalFlush);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    public int newDraftKey() {
+        return nextDraftKey.getAndDecrement();
+    }
+
+    /** Queues the latest state of a note; replaces any not-yet-written version under the same key. */
+    public void submit(int key, String title, String content) {
+        if (closed) throw new IllegalStateException("Autosaver is closed");
+        synchronized (this) {
+            pending.put(key, new Note(key, title, content));
+        }
+    }
+
+    /** Writes everything pending now, in the background. */
+    public CompletableFuture<Void> flushAsync() {
+        return CompletableFuture.runAsync(this::flushQuietly, executor);
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /** Drains the queue and writes it as one transaction. Failed writes are re-queued unless newer edits arrived. */
+    private void flush() throws SQLException {
+        synchronized (writeLock) {
+            Map<Integer, Note> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) return;
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+
+            // Resolve draft keys to the row they were inserted as; untouched drafts keep id -1 → insert
+            for (Map.Entry<Integer, Note> e : batch.entrySet()) {
+                int key = e.getKey();
+                e.getValue().setId(key > 0 ? key : draftIds.getOrDefault(key, -1));
+            }
+
+            try {
+                noteService.upsertNotes(batch.values());
+            } catch (SQLException ex) {
+                synchronized (this) {
+                    batch.forEach(pending::putIfAbsent);
+                }
+                throw ex;
+            }
+
+            for (Map.Entry<Integer, Note> e : batch.entrySet()) {
+                if (e.getKey() < 0) draftIds.put(e.getKey(), e.getValue().getId());
+                if (onSaved != null) onSaved.accept(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (onFailed != null) onFailed.accept(e);
+        }
+    }
+
+    /**
+     * Stops the background thread after one last flush of whatever is pending. Returns at once; until
+     * that flush has run, the shutdown hook stays registered so exiting right away loses nothing.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        executor.execute(() -> {
+            flushQuietly();
+            if (pendingCount() > 0) return; // the write failed: leave the retry to the shutdown hook
+            try {
+                NoteDatabase.getInstance().removeBeforeClose(finalFlush);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+        executor.shutdown(); // cancels the periodic flush; the task above still runs
+    }
+}
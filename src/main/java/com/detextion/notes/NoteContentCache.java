@@ -0,0 +1,67 @@
+package com.detextion.notes;
+
+import com.detextion.diagnostics.PerfStats;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of note bodies, bounded by total characters rather than entry count,
+ * so a handful of huge notes can't hold more memory than thousands of short ones.
+ * Only touched from the FX thread.
+ */
+public class NoteContentCache {
+
+    public static final int DEFAULT_MAX_CHARS = 4_000_000; // ~8 MB of UTF-16
+
+    private final int maxChars;
+    private final LinkedHashMap<Integer, Note> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalChars;
+    private final PerfStats.CacheCounter stats = PerfStats.cache("notes");
+
+    public NoteContentCache() {
+        this(DEFAULT_MAX_CHARS);
+    }
+
+    public NoteContentCache(int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    public Note get(int id) {
+        Note note = entries.get(id);
+        if (note != null) stats.hit();
+        else stats.miss();
+        return note;
+    }
+
+    public void put(Note note) {
+        Note old = entries.put(note.getId(), note);
+        if (old != null) totalChars -= weight(old);
+        totalChars += weight(note);
+        evict();
+    }
+
+    public void remove(int id) {
+        Note old = entries.remove(id);
+        if (old != null) totalChars -= weight(old);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Integer, Note>> it = entries.entrySet().iterator();
+        // Always keep the most recent entry, even if it alone exceeds the budget
+        while (totalChars > maxChars && entries.size() > 1 && it.hasNext()) {
+            totalChars -= weight(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private static long weight(Note n) {
+        return (n.getTitle() == null ? 0 : n.getTitle().length())
+                + (n.getContent() == null ? 0 : n.getContent().length());
+    }
+}
@@ -0,0 +1,219 @@
+package com.detextion.notes;
+
+import com.detextion.diagnostics.PerfEvents;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Single long-lived SQLite connection for notes.db.
+ *
+ * SQLite only allows one writer at a time, so a pool buys nothing; instead the connection is opened
+ * once in WAL mode with relaxed fsync ({@code synchronous=NORMAL}) and a larger page cache, and
+ * every SQL string is prepared once and reused. Access is serialized on this object.
+ *
+ * Opening the connection, the PRAGMAs and the schema migrations (versioned through
+ * {@code PRAGMA user_version}) all run on a background thread the first time the database is
+ * requested, never during class loading or on the caller's thread; the first {@link #execute}
+ * waits for them.
+ */
+public class NoteDatabase implements AutoCloseable {
+
+    private static final String DB_URL = "jdbc:sqlite:notes.db"; // creates a file notes.db in project workspace
+
+    /** Ordered schema steps; index + 1 is the user_version after the step has run. */
+    private static final List<List<String>> MIGRATIONS = List.of(
+            List.of(
+                    "CREATE TABLE IF NOT EXISTS notes (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT, content TEXT)"
+            ),
+            // v2: FTS5 index over title + content, kept in sync by triggers (external-content table)
+            List.of(
+                    """
+                    CREATE VIRTUAL TABLE IF NOT EXISTS notes_fts USING fts5(
+                        title, content, content='notes', content_rowid='id',
+                        tokenize='unicode61 remove_diacritics 2')
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS notes_ai AFTER INSERT ON notes BEGIN
+                        INSERT INTO notes_fts(rowid, title, content) VALUES (new.id, new.title, new.content);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS notes_ad AFTER DELETE ON notes BEGIN
+                        INSERT INTO notes_fts(notes_fts, rowid, title, content) VALUES ('delete', old.id, old.title, old.content);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS notes_au AFTER UPDATE ON notes BEGIN
+                        INSERT INTO notes_fts(notes_fts, rowid, title, content) VALUES ('delete', old.id, old.title, old.content);
+                        INSERT INTO notes_fts(rowid, title, content) VALUES (new.id, new.title, new.content);
+                    END
+                    """,
+                    "INSERT INTO notes_fts(notes_fts) VALUES ('rebuild')"
+            )
+    );
+
+    private static NoteDatabase shared;
+
+    private Connection conn; // set by open(); read only after schemaReady completes
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final List<Runnable> beforeClose = new ArrayList<>();
+    private final CompletableFuture<Void> schemaReady;
+
+    /** Returns the process-wide database, opening it (and starting migration) on first use. */
+    public static synchronized NoteDatabase getInstance() throws SQLException {
+        if (shared == null) {
+            shared = new NoteDatabase(DB_URL);
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "notes-db-close"));
+        }
+        return shared;
+    }
+
+    public NoteDatabase(String url) {
+        schemaReady = CompletableFuture.runAsync(() -> {
+            open(url);
+            migrate();
+        });
+    }
+
+    private synchronized void open(String url) {
+        try {
+            conn = DriverManager.getConnection(url);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("PRAGMA synchronous=NORMAL");   // fsync on checkpoint, not on every commit
+                stmt.execute("PRAGMA cache_size=-16000");    // ~16 MB page cache
+                stmt.execute("PRAGMA temp_store=MEMORY");
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /** Work run against the shared connection while holding its lock. */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(NoteDatabase db) throws SQLException;
+    }
+
+    /** Runs {@code work} once the schema is ready. */
+    public <T> T execute(SqlWork<T> work) throws SQLException {
+        awaitSchema();
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("sqlite", "execute");
+        synchronized (this) {
+            try {
+                return work.run(this);
+            } finally {
+                event.commit();
+            }
+        }
+    }
+
+    /** Runs {@code work} inside a single transaction — one commit (and one WAL sync point) for the whole batch. */
+    public <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        awaitSchema();
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("sqlite", "transaction");
+        synchronized (this) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(this);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                event.commit();
+            }
+        }
+    }
+
+    /** Registers a task (e.g. a final autosave flush) that runs while the connection is still open at shutdown. */
+    public synchronized void runBeforeClose(Runnable task) {
+        beforeClose.add(task);
+    }
+
+    /** Unregisters a task added with {@link #runBeforeClose}, e.g. once its owner has shut down on its own. */
+    public synchronized void removeBeforeClose(Runnable task) {
+        beforeClose.remove(task);
+    }
+
+    /** Returns a cached prepared statement for {@code sql}. Only call from inside {@link #execute}/{@link #inTransaction}. */
+    public PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null || ps.isClosed()) {
+            ps = conn.prepareStatement(sql);
+            statements.put(sql, ps);
+        }
+        ps.clearParameters();
+        return ps;
+    }
+
+    private void awaitSchema() throws SQLException {
+        try {
+            schemaReady.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sql) throw sql;
+            throw new SQLException("Notes schema migration failed", e.getCause());
+        }
+    }
+
+    private synchronized void migrate() {
+        try (Statement stmt = conn.createStatement()) {
+            int version;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+                version = rs.next() ? rs.getInt(1) : 0;
+            }
+            for (int v = version; v < MIGRATIONS.size(); v++) {
+                conn.setAutoCommit(false);
+                for (String sql : MIGRATIONS.get(v)) stmt.execute(sql);
+                stmt.execute("PRAGMA user_version = " + (v + 1));
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            } catch (SQLException ignored) {
+                // keep the original failure
+            }
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Runnable> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(beforeClose);
+            beforeClose.clear();
+        }
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        closeConnection();
+    }
+
+    private void closeConnection() {
+        schemaReady.exceptionally(e -> null).join(); // outside the lock, which opening holds
+        synchronized (this) {
+            if (conn == null) return; // opening failed
+            try {
+                for (PreparedStatement ps : statements.values()) ps.close();
+                statements.clear();
+                if (!conn.isClosed()) conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -1,55 +1,140 @@
 package com.detextion.notes;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.stage.WindowEvent;
 import java.sql.SQLException;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class NoteEditorController {
 
     @FXML private TextField titleField;
     @FXML private TextArea contentArea;
-    @FXML private ListView<String> noteListView;
+    @FXML private TextField searchField;
+    @FXML private ListView<NoteSummary> noteListView;
+    @FXML private CheckBox autosaveToggle;
+    @FXML private Label statusLabel;
+
+    private static final int PAGE_SIZE = 200;
+    private static final int SEARCH_LIMIT = 100;
 
     private final NoteService noteService = new NoteService();
-    private final ObservableList<String> notesTitles = FXCollections.observableArrayList();
-    private List<Note> noteObjects;
+    private final NoteContentCache contentCache = new NoteContentCache();
+    private final ObservableList<NoteSummary> noteSummaries = FXCollections.observableArrayList();
+    private final NoteAutosaver autosaver = new NoteAutosaver(noteService, NoteAutosaver.DEFAULT_INTERVAL_MS,
+            (key, note) -> Platform.runLater(() -> onNoteSaved(key, note)),
+            error -> Platform.runLater(() -> onSaveFailed(error)));
+    // Reads run here, in order, so opening the database, migrations and waits on the connection lock
+    // (e.g. behind an autosave transaction) never stall the FX thread
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "notes-reader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private int currentKey = autosaver.newDraftKey(); // note ID, or a negative draft key for a new note
+    private boolean loadingNote;        // suppresses autosave while the editor is filled programmatically
+    private boolean hasMorePages;       // plain listing only; search results are a single page
+    private boolean searching;
+    private int listGeneration;         // bumped when the listing is replaced, so older pages are dropped
+    private int openRequest;            // bumped per openNote, so only the last note opened fills the editor
 
     @FXML
     public void initialize() {
-        noteListView.setItems(notesTitles);
-        noteListView.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
-            int idx = newVal.intValue();
-            if (idx >= 0 && idx < noteObjects.size()) {
-                Note note = noteObjects.get(idx);
-                titleField.setText(note.getTitle());
-                contentArea.setText(note.getContent());
+        noteListView.setItems(noteSummaries);
+        noteListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(NoteSummary item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.toString());
+                // Page in the next batch of titles once the last loaded row scrolls into view
+                if (!empty && hasMorePages && getIndex() == noteSummaries.size() - 1)
+                    Platform.runLater(NoteEditorController.this::loadNextPage);
             }
         });
+        noteListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null) openNote(newVal.id());
+        });
+
+        // Autosave: every edit is queued; the write-behind thread coalesces and writes them
+        titleField.textProperty().addListener((obs, oldVal, newVal) -> onEdited());
+        contentArea.textProperty().addListener((obs, oldVal, newVal) -> onEdited());
+
+        // Flush pending edits when the editor window closes
+        noteListView.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) scene.windowProperty().addListener((o, oldWin, win) -> {
+                if (win != null) win.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+                    autosaver.close();
+                    reader.shutdown();
+                });
+            });
+        });
         loadNotes();
     }
 
-    /** 💾 Save note to DB */
+    /** 🔎 Full-text search over note titles and content */
     @FXML
-    private void onSaveClicked() {
-        String title = titleField.getText().trim();
-        String content = contentArea.getText().trim();
+    private void onSearchClicked() {
+        String query = searchField.getText() == null ? "" : searchField.getText().trim();
+        if (query.isEmpty()) {
+            loadNotes();
+            return;
+        }
+        int generation = ++listGeneration;
+        searching = true;
+        hasMorePages = false;
+        read(() -> noteService.search(query, SEARCH_LIMIT), results -> {
+            if (generation == listGeneration) noteSummaries.setAll(results);
+        }, "Couldn't search notes: ");
+    }
 
-        if (title.isEmpty()) {
+    /** 💾 Save note to DB — updates the open note, or inserts a new one (written in the background) */
+    @FXML
+    private void onSaveClicked() {
+        if (titleField.getText().trim().isEmpty()) {
             showAlert("Title required!", "Please enter a title for your note.");
             return;
         }
+        queueCurrentNote();
+        autosaver.flushAsync();
+        statusLabel.setText("💾 Saving…");
+        clearFields();
+    }
 
-        try {
-            noteService.saveNote(title, content);
-            showAlert("Success", "✅ Note saved successfully!");
-            loadNotes();
-            clearFields();
-        } catch (SQLException e) {
-            showAlert("Database Error", "Couldn't save note: " + e.getMessage());
-        }
+    private void onEdited() {
+        if (loadingNote || !autosaveToggle.isSelected()) return;
+        if (titleField.getText().trim().isEmpty()) return;
+        queueCurrentNote();
+        statusLabel.setText("✏ Unsaved changes");
+    }
+
+    private void queueCurrentNote() {
+        String title = titleField.getText().trim();
+        String content = contentArea.getText().trim();
+        autosaver.submit(currentKey, title, content);
+        // Keep the cache current so reopening the note before the flush shows the latest edit
+        if (currentKey > 0) contentCache.put(new Note(currentKey, title, content));
+    }
+
+    /** Called on the FX thread after the autosaver wrote a note. */
+    private void onNoteSaved(int key, Note saved) {
+        contentCache.put(new Note(saved.getId(), saved.getTitle(), saved.getContent()));
+        upsertRow(new NoteSummary(saved.getId(), saved.getTitle()));
+        statusLabel.setText("✅ Saved " + LocalTime.now().withNano(0));
+    }
+
+    /** Called on the FX thread when a write failed; the edits stay queued and are retried on the next flush. */
+    private void onSaveFailed(SQLException error) {
+        statusLabel.setText("⚠ Not saved: " + error.getMessage());
     }
 
     /** 🔁 Reload notes from DB */
@@ -65,21 +150,83 @@ public class NoteEditorController {
     }
 
     private void clearFields() {
+        loadingNote = true;
+        currentKey = autosaver.newDraftKey();
         titleField.clear();
         contentArea.clear();
         noteListView.getSelectionModel().clearSelection();
+        loadingNote = false;
     }
 
+    /** Loads the first page of titles only; content is fetched when a note is opened. */
     private void loadNotes() {
-        try {
-            noteObjects = noteService.getAllNotes();
-            notesTitles.clear();
-            for (Note n : noteObjects) {
-                notesTitles.add(n.getTitle());
+        int generation = ++listGeneration;
+        searching = false;
+        hasMorePages = false;
+        read(() -> noteService.listSummaries(0, PAGE_SIZE), page -> {
+            if (generation != listGeneration) return;
+            hasMorePages = page.size() == PAGE_SIZE;
+            noteSummaries.setAll(page);
+        }, "Couldn't load notes: ");
+    }
+
+    private void loadNextPage() {
+        if (!hasMorePages || searching || noteSummaries.isEmpty()) return;
+        hasMorePages = false; // guard against re-entry while cells refresh and the page loads
+        int generation = listGeneration;
+        int lastId = noteSummaries.get(noteSummaries.size() - 1).id();
+        read(() -> noteService.listSummaries(lastId, PAGE_SIZE), page -> {
+            if (generation != listGeneration) return;
+            hasMorePages = page.size() == PAGE_SIZE;
+            noteSummaries.addAll(page);
+        }, "Couldn't load notes: ");
+    }
+
+    /** Replaces the row for this note in place, or appends it if it isn't listed yet. */
+    private void upsertRow(NoteSummary summary) {
+        for (int i = 0; i < noteSummaries.size(); i++) {
+            if (noteSummaries.get(i).id() == summary.id()) {
+                noteSummaries.set(i, summary);
+                return;
             }
-        } catch (SQLException e) {
-            showAlert("Database Error", "Couldn't load notes: " + e.getMessage());
         }
+        // Only append when the listing is fully loaded; otherwise the row arrives with its page
+        if (!hasMorePages && !searching) noteSummaries.add(summary);
+    }
+
+    private void openNote(int id) {
+        int request = ++openRequest;
+        Note cached = contentCache.get(id);
+        if (cached != null) {
+            showNote(cached);
+            return;
+        }
+        read(() -> noteService.getNote(id).orElse(null), note -> {
+            if (note == null) return;
+            contentCache.put(note);
+            if (request == openRequest) showNote(note);
+        }, "Couldn't open note: ");
+    }
+
+    private void showNote(Note note) {
+        loadingNote = true;
+        currentKey = note.getId();
+        titleField.setText(note.getTitle());
+        contentArea.setText(note.getContent());
+        loadingNote = false;
+    }
+
+    /** Runs {@code query} on the reader thread and hands its result to {@code onResult} on the FX thread. */
+    private <T> void read(Callable<T> query, Consumer<T> onResult, String failure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+        task.setOnSucceeded(e -> onResult.accept(task.getValue()));
+        task.setOnFailed(e -> showAlert("Database Error", failure + task.getException().getMessage()));
+        reader.execute(task);
     }
 
     private void showAlert(String title, String message) {
@@ -4,40 +4,150 @@ import java.sql.*;
 import java.util.*;
 
 public class NoteService {
-    private static final String DB_URL = "jdbc:sqlite:notes.db"; // creates a file notes.db in project workspace
 
-    static {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute("CREATE TABLE IF NOT EXISTS notes (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT, content TEXT)");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    private static final String INSERT_NOTE = "INSERT INTO notes (title, content) VALUES (?, ?) RETURNING id";
+    private static final String UPDATE_NOTE = "UPDATE notes SET title = ?, content = ? WHERE id = ?";
+    private static final String LIST_PAGE = "SELECT id, title FROM notes WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String GET_NOTE = "SELECT id, title, content FROM notes WHERE id = ?";
+    private static final String SEARCH = """
+            SELECT rowid, title, snippet(notes_fts, 1, '[', ']', '…', 12)
+            FROM notes_fts
+            WHERE notes_fts MATCH ?
+            ORDER BY bm25(notes_fts, 10.0, 1.0)
+            LIMIT ?
+            """;
+
+    private NoteDatabase db() throws SQLException {
+        return NoteDatabase.getInstance();
+    }
+
+    /** Inserts a note and returns its generated ID. */
+    public int saveNote(String title, String content) throws SQLException {
+        return db().execute(db -> insert(db, title, content));
+    }
+
+    /**
+     * Inserts many notes in one transaction (bulk import, autosave bursts).
+     * Sets each note's generated ID and returns the number written.
+     */
+    public int saveNotes(Collection<Note> notes) throws SQLException {
+        if (notes.isEmpty()) return 0;
+        return db().inTransaction(db -> {
+            for (Note n : notes) n.setId(insert(db, n.getTitle(), n.getContent()));
+            return notes.size();
+        });
+    }
+
+    /** Rewrites an existing note in place. Returns false if no note has that ID. */
+    public boolean updateNote(Note note) throws SQLException {
+        return db().execute(db -> {
+            PreparedStatement ps = db.statement(UPDATE_NOTE);
+            ps.setString(1, note.getTitle());
+            ps.setString(2, note.getContent());
+            ps.setInt(3, note.getId());
+            return ps.executeUpdate() > 0;
+        });
     }
 
-    public void saveNote(String title, String content) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "INSERT INTO notes (title, content) VALUES (?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, title);
-                pstmt.setString(2, content);
-                pstmt.executeUpdate();
+    /**
+     * Writes a batch of notes in one transaction: notes with an ID are updated in place, the rest
+     * (or ones whose row has disappeared) are inserted and get their generated ID set.
+     */
+    public void upsertNotes(Collection<Note> notes) throws SQLException {
+        if (notes.isEmpty()) return;
+        db().inTransaction(db -> {
+            for (Note n : notes) {
+                if (n.getId() > 0) {
+                    PreparedStatement ps = db.statement(UPDATE_NOTE);
+                    ps.setString(1, n.getTitle());
+                    ps.setString(2, n.getContent());
+                    ps.setInt(3, n.getId());
+                    if (ps.executeUpdate() > 0) continue;
+                }
+                n.setId(insert(db, n.getTitle(), n.getContent()));
             }
-        }
+            return null;
+        });
     }
 
     public List<Note> getAllNotes() throws SQLException {
-        List<Note> notes = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM notes")) {
-            while (rs.next()) {
-                notes.add(new Note(rs.getInt("id"), rs.getString("title"), rs.getString("content")));
+        return db().execute(db -> {
+            List<Note> notes = new ArrayList<>();
+            try (ResultSet rs = db.statement("SELECT id, title, content FROM notes ORDER BY id").executeQuery()) {
+                while (rs.next()) {
+                    notes.add(new Note(rs.getInt("id"), rs.getString("title"), rs.getString("content")));
+                }
+            }
+            return notes;
+        });
+    }
+
+    /**
+     * Keyset-paged listing of titles only, in ID order.
+     * Pass the last ID of the previous page (or 0 for the first page).
+     */
+    public List<NoteSummary> listSummaries(int afterId, int limit) throws SQLException {
+        return db().execute(db -> {
+            PreparedStatement ps = db.statement(LIST_PAGE);
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+            List<NoteSummary> page = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) page.add(new NoteSummary(rs.getInt(1), rs.getString(2)));
+            }
+            return page;
+        });
+    }
+
+    /** Loads a single note with its full content. */
+    public Optional<Note> getNote(int id) throws SQLException {
+        return db().execute(db -> {
+            PreparedStatement ps = db.statement(GET_NOTE);
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next()
+                        ? Optional.of(new Note(rs.getInt(1), rs.getString(2), rs.getString(3)))
+                        : Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Full-text search over titles and content, best match first (BM25, title hits weigh 10×).
+     * Each word of {@code query} is matched as a prefix, so partial words typed in the UI still hit.
+     */
+    public List<NoteSummary> search(String query, int limit) throws SQLException {
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) return List.of();
+        return db().execute(db -> {
+            PreparedStatement ps = db.statement(SEARCH);
+            ps.setString(1, match);
+            ps.setInt(2, limit);
+            List<NoteSummary> hits = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) hits.add(new NoteSummary(rs.getInt(1), rs.getString(2), rs.getString(3)));
             }
+            return hits;
+        });
+    }
+
+    /** Quotes each word so user input can't break FTS5 query syntax, then makes it a prefix term. */
+    private static String toMatchExpression(String query) {
+        StringJoiner terms = new StringJoiner(" ");
+        for (String word : query.trim().split("\\s+")) {
+            if (!word.isEmpty()) terms.add("\"" + word.replace("\"", "\"\"") + "\"*");
+        }
+        return terms.toString();
+    }
+
+    private static int insert(NoteDatabase db, String title, String content) throws SQLException {
+        PreparedStatement pstmt = db.statement(INSERT_NOTE);
+        pstmt.setString(1, title);
+        pstmt.setString(2, content);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : -1;
         }
-        return notes;
     }
 
     // add methods for update, delete as needed
-}
\ No newline at end of file
+}
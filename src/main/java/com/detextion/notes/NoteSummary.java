@@ -0,0 +1,19 @@
+package com.detextion.notes;
+
+/**
+ * Lightweight list entry for a note: just enough to render the notes list.
+ * The full content is fetched separately, only when the note is opened.
+ *
+ * @param snippet highlighted match excerpt for search results, or {@code null} in plain listings
+ */
+public record NoteSummary(int id, String title, String snippet) {
+
+    public NoteSummary(int id, String title) {
+        this(id, title, null);
+    }
+
+    @Override
+    public String toString() {
+        return snippet == null ? title : title + " — " + snippet;
+    }
+}
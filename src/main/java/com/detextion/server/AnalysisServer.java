@@ -0,0 +1,412 @@
+package com.detextion.server;
+
+import com.detextion.graph.GraphEdge;
+import com.detextion.services.PDFExtractionService;
+import com.detextion.textanalysis.TextInsights;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Embedded HTTP service exposing extraction and keyword analysis to other tools, without the UI.
+ *
+ * <pre>
+ * POST   /documents?name=paper.pdf       body: the PDF → 201 {"id", "name", "pages", "characters", "keywords"}
+ * GET    /documents                      every submitted document's metadata
+ * GET    /documents/{id}                 one document's metadata
+ * DELETE /documents/{id}
+ * GET    /documents/{id}/text[?page=n]   plain text, all pages (form-feed separated) or page n (1-based)
+ * GET    /documents/{id}/keywords[?k=n]  top n terms with counts (default 15)
+ * GET    /documents/{id}/summary         three-sentence extractive summary
+ * GET    /documents/{id}/similar         documents sharing keywords with this one, strongest first
+ * GET    /similarity[?min=n]             all shared-keyword edges with at least n shared keywords
+ * GET    /health
+ * </pre>
+ *
+ * Every request runs on its own virtual thread, so a client blocked on a slow upload or a long
+ * extraction doesn't hold a platform thread. Two limits keep one JVM healthy under load: a cap on
+ * requests in progress (beyond it clients get 503 with Retry-After at once) and a smaller cap on
+ * CPU-heavy work — extraction, summaries, similarity — that further requests queue for. Document
+ * text and the similarity list are streamed with chunked encoding rather than built in memory.
+ */
+public class AnalysisServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8765;
+    public static final int DEFAULT_MAX_REQUESTS = 256;
+    public static final int DEFAULT_MAX_COMPUTATIONS = Runtime.getRuntime().availableProcessors();
+    public static final long DEFAULT_MAX_UPLOAD_BYTES = 256L * 1024 * 1024;
+
+    private static final char PAGE_SEPARATOR = '\f';
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore requestSlots;
+    private final Semaphore computeSlots;
+    private final long maxUploadBytes;
+    private final DocumentSession session = new DocumentSession();
+    private final PDFExtractionService extraction = new PDFExtractionService();
+
+    public AnalysisServer(InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_MAX_REQUESTS, DEFAULT_MAX_COMPUTATIONS, DEFAULT_MAX_UPLOAD_BYTES);
+    }
+
+    public AnalysisServer(InetSocketAddress address, int maxRequests, int maxComputations, long maxUploadBytes) throws IOException {
+        if (maxRequests <= 0 || maxComputations <= 0 || maxUploadBytes <= 0)
+            throw new IllegalArgumentException("limits must be positive");
+        this.requestSlots = new Semaphore(maxRequests);
+        this.computeSlots = new Semaphore(maxComputations, true);
+        this.maxUploadBytes = maxUploadBytes;
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/documents", exchange -> handle(exchange, this::documents));
+        server.createContext("/similarity", exchange -> handle(exchange, this::similarity));
+        server.createContext("/health", exchange -> handle(exchange, this::health));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** The bound address — useful when started on port 0. */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    public DocumentSession session() {
+        return session;
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    // ===========================================================
+    // Routing
+    // ===========================================================
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange exchange, List<String> path, Map<String, String> query) throws Exception;
+    }
+
+    /** Thrown by routes to answer with an error status. */
+    private static final class HttpError extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Route route) {
+        try {
+            if (!requestSlots.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Too many requests in progress");
+                return;
+            }
+            try {
+                route.handle(exchange, pathSegments(exchange), query(exchange));
+            } catch (HttpError e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (IOException e) {
+                // Usually the client hanging up mid-response; report only if nothing was sent yet
+                sendError(exchange, 500, String.valueOf(e.getMessage()));
+            } catch (Exception e) {
+                e.printStackTrace();
+                sendError(exchange, 500, String.valueOf(e.getMessage()));
+            } finally {
+                requestSlots.release();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void documents(HttpExchange exchange, List<String> path, Map<String, String> query) throws Exception {
+        String method = exchange.getRequestMethod();
+        if (!path.get(0).equals("documents")) throw new HttpError(404, "Unknown resource " + exchange.getRequestURI().getPath());
+        if (path.size() == 1) {
+            switch (method) {
+                case "GET" -> sendJson(exchange, 200, documentList());
+                case "POST" -> submit(exchange, query);
+                default -> throw new HttpError(405, "Use GET or POST");
+            }
+            return;
+        }
+
+        DocumentSession.Document document = session.get(path.get(1))
+                .orElseThrow(() -> new HttpError(404, "No document " + path.get(1)));
+        if (path.size() == 2) {
+            switch (method) {
+                case "GET" -> sendJson(exchange, 200, describe(document));
+                case "DELETE" -> {
+                    session.remove(document.id());
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> throw new HttpError(405, "Use GET or DELETE");
+            }
+            return;
+        }
+
+        requireGet(exchange);
+        switch (path.size() == 3 ? path.get(2) : "") {
+            case "text" -> sendText(exchange, document, query.get("page"));
+            case "keywords" -> {
+                int k = intParam(query, "k", TextInsights.KEYWORDS_PER_DOCUMENT);
+                if (k < 1) throw new HttpError(400, "k must be positive");
+                sendJson(exchange, 200, Json.counts(TextInsights.topKeywords(document.terms(), k)));
+            }
+            case "summary" -> {
+                String summary = compute(() -> session.summary(document));
+                sendJson(exchange, 200, "{\"id\":" + Json.quote(document.id()) + ",\"summary\":" + Json.quote(summary) + "}");
+            }
+            case "similar" -> sendEdges(exchange, compute(() -> session.similarTo(document)));
+            default -> throw new HttpError(404, "Unknown resource " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private void similarity(HttpExchange exchange, List<String> path, Map<String, String> query) throws Exception {
+        requireGet(exchange);
+        if (path.size() != 1 || !path.get(0).equals("similarity")) throw new HttpError(404, "Unknown resource " + exchange.getRequestURI().getPath());
+        int min = intParam(query, "min", 1);
+        List<GraphEdge> edges = compute(session::similarity);
+        sendEdges(exchange, edges.stream().filter(e -> e.weight() >= min)
+                .sorted(Comparator.comparingInt(GraphEdge::weight).reversed())
+                .toList());
+    }
+
+    private void health(HttpExchange exchange, List<String> path, Map<String, String> query) throws Exception {
+        requireGet(exchange);
+        sendJson(exchange, 200, "{\"status\":\"ok\",\"documents\":" + session.size()
+                + ",\"requestsAvailable\":" + requestSlots.availablePermits()
+                + ",\"computationsQueued\":" + computeSlots.getQueueLength() + "}");
+    }
+
+    // ===========================================================
+    // Handlers
+    // ===========================================================
+
+    /** Spools the uploaded PDF to a temp file (PDFBox needs random access), then extracts it. */
+    private void submit(HttpExchange exchange, Map<String, String> query) throws Exception {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            long declared;
+            try {
+                declared = Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "Content-Length must be a number");
+            }
+            if (declared > maxUploadBytes) throw new HttpError(413, "Upload larger than " + maxUploadBytes + " bytes");
+        }
+
+        Path upload = Files.createTempFile("detextion-upload", ".pdf");
+        try {
+            try (InputStream in = exchange.getRequestBody(); OutputStream out = Files.newOutputStream(upload)) {
+                byte[] buf = new byte[64 * 1024];
+                long total = 0;
+                for (int n; (n = in.read(buf)) > 0; ) {
+                    total += n;
+                    if (total > maxUploadBytes) throw new HttpError(413, "Upload larger than " + maxUploadBytes + " bytes");
+                    out.write(buf, 0, n);
+                }
+                if (total == 0) throw new HttpError(400, "Empty body; POST the PDF bytes");
+            }
+            String name = query.getOrDefault("name", "document.pdf");
+            List<String> pages;
+            try {
+                pages = compute(() -> extraction.extractPages(upload.toFile()));
+            } catch (IOException e) {
+                throw new HttpError(422, "Not a readable PDF: " + e.getMessage());
+            }
+            DocumentSession.Document document = compute(() -> session.add(name, pages));
+            exchange.getResponseHeaders().set("Location", "/documents/" + document.id());
+            sendJson(exchange, 201, describe(document));
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /** Streams page text as it's written; a whole document is never concatenated. */
+    private void sendText(HttpExchange exchange, DocumentSession.Document document, String page) throws Exception {
+        List<String> pages = document.pages();
+        if (page != null) {
+            int p = intParam(Map.of("page", page), "page", 0);
+            if (p < 1 || p > pages.size()) throw new HttpError(404, "Page " + page + " of " + pages.size() + " pages");
+            pages = List.of(pages.get(p - 1));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < pages.size(); i++) {
+                if (i > 0) out.write(PAGE_SEPARATOR);
+                out.write(pages.get(i));
+            }
+        }
+    }
+
+    /** Streams edges as a JSON array, one element at a time. */
+    private void sendEdges(HttpExchange exchange, List<GraphEdge> edges) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            out.write('[');
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < edges.size(); i++) {
+                GraphEdge e = edges.get(i);
+                sb.setLength(0);
+                if (i > 0) sb.append(',');
+                sb.append("{\"source\":");
+                Json.appendQuoted(sb, e.source());
+                sb.append(",\"sourceName\":");
+                Json.appendQuoted(sb, nameOf(e.source()));
+                sb.append(",\"target\":");
+                Json.appendQuoted(sb, e.target());
+                sb.append(",\"targetName\":");
+                Json.appendQuoted(sb, nameOf(e.target()));
+                sb.append(",\"weight\":").append(e.weight()).append(",\"keywords\":[");
+                for (int k = 0; k < e.sharedKeywords().size(); k++) {
+                    if (k > 0) sb.append(',');
+                    Json.appendQuoted(sb, e.sharedKeywords().get(k));
+                }
+                sb.append("]}");
+                out.append(sb);
+            }
+            out.write(']');
+        }
+    }
+
+    private String documentList() {
+        StringBuilder sb = new StringBuilder("[");
+        for (DocumentSession.Document d : session.documents()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(describe(d));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String describe(DocumentSession.Document d) {
+        return "{\"id\":" + Json.quote(d.id()) + ",\"name\":" + Json.quote(d.name())
+                + ",\"pages\":" + d.pages().size() + ",\"characters\":" + d.characters()
+                + ",\"keywords\":" + Json.counts(d.keywords()) + "}";
+    }
+
+    private String nameOf(String id) {
+        return session.get(id).map(DocumentSession.Document::name).orElse("");
+    }
+
+    // ===========================================================
+    // Helpers
+    // ===========================================================
+
+    @FunctionalInterface
+    private interface Computation<T> {
+        T run() throws Exception;
+    }
+
+    /** Runs CPU-heavy work once a compute slot is free; waiting parks only this request's virtual thread. */
+    private <T> T compute(Computation<T> work) throws Exception {
+        computeSlots.acquire();
+        try {
+            return work.run();
+        } finally {
+            computeSlots.release();
+        }
+    }
+
+    private static void requireGet(HttpExchange exchange) throws HttpError {
+        if (!exchange.getRequestMethod().equals("GET")) throw new HttpError(405, "Use GET");
+    }
+
+    private static int intParam(Map<String, String> query, String name, int fallback) throws HttpError {
+        String value = query.get(name);
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, name + " must be an integer");
+        }
+    }
+
+    private static List<String> pathSegments(HttpExchange exchange) {
+        List<String> segments = new ArrayList<>();
+        for (String s : exchange.getRequestURI().getPath().split("/"))
+            if (!s.isEmpty()) segments.add(URLDecoder.decode(s, StandardCharsets.UTF_8));
+        return segments;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) return; // headers already sent; the connection just closes
+        try {
+            sendJson(exchange, status, "{\"error\":" + Json.quote(message) + "}");
+        } catch (IOException ignored) {
+            // client went away
+        }
+    }
+
+    // ===========================================================
+    // Entry point
+    // ===========================================================
+
+    /**
+     * {@code java -cp ... com.detextion.server.AnalysisServer [--host 127.0.0.1] [--port 8765]
+     * [--max-requests 256] [--max-computations <cores>] [--max-upload-mb 256]}
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length)
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        InetSocketAddress address = new InetSocketAddress(
+                opts.getOrDefault("host", "127.0.0.1"),
+                Integer.parseInt(opts.getOrDefault("port", String.valueOf(DEFAULT_PORT))));
+        AnalysisServer server = new AnalysisServer(address,
+                Integer.parseInt(opts.getOrDefault("max-requests", String.valueOf(DEFAULT_MAX_REQUESTS))),
+                Integer.parseInt(opts.getOrDefault("max-computations", String.valueOf(DEFAULT_MAX_COMPUTATIONS))),
+                Long.parseLong(opts.getOrDefault("max-upload-mb", String.valueOf(DEFAULT_MAX_UPLOAD_BYTES >> 20))) << 20);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "analysis-server-stop"));
+        server.start();
+        System.out.println("DeTextion analysis service listening on http://" + address.getHostString() + ":" + server.address().getPort());
+    }
+}
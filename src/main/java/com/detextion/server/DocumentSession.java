@@ -0,0 +1,91 @@
+package com.detextion.server;
+
+import com.detextion.graph.GraphEdge;
+import com.detextion.textanalysis.TextInsights;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The documents submitted to the analysis service: extracted pages, term counts and top keywords,
+ * keyed by a server-assigned ID. Safe for concurrent use; summaries are computed on first request
+ * and kept.
+ */
+public class DocumentSession {
+
+    /** A submitted document. {@code keywords} are its top terms, the same ones the desktop graph links on. */
+    public record Document(String id, String name, List<String> pages, long characters,
+                           Map<String, Integer> terms, Map<String, Integer> keywords) {}
+
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<String, Document> documents = new ConcurrentSkipListMap<>(
+            Comparator.comparingLong(Long::parseLong));
+    private final Map<String, String> summaries = new ConcurrentHashMap<>();
+
+    /** Stores a document's pages, counting its terms; returns the stored document. */
+    public Document add(String name, List<String> pages) {
+        String id = Long.toString(nextId.getAndIncrement());
+        long characters = 0;
+        for (String page : pages) characters += page.length();
+        String text = String.join("", pages);
+        Map<String, Integer> terms = TextInsights.countTerms(text);
+        Document document = new Document(id, name, List.copyOf(pages), characters, terms, TextInsights.topKeywords(terms, TextInsights.KEYWORDS_PER_DOCUMENT));
+        documents.put(id, document);
+        return document;
+    }
+
+    public Optional<Document> get(String id) {
+        try {
+            return Optional.ofNullable(documents.get(id));
+        } catch (NumberFormatException e) {
+            return Optional.empty(); // not an ID this session hands out
+        }
+    }
+
+    public boolean remove(String id) {
+        summaries.remove(id);
+        try {
+            return documents.remove(id) != null;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** All documents, oldest first. */
+    public Collection<Document> documents() {
+        return Collections.unmodifiableCollection(documents.values());
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public String summary(Document document) {
+        return summaries.computeIfAbsent(document.id(), id -> TextInsights.summarize(String.join("", document.pages())));
+    }
+
+    /** Shared-keyword edges between all documents, endpoints as document IDs. */
+    public List<GraphEdge> similarity() {
+        Map<String, Set<String>> keywords = new HashMap<>();
+        for (Document d : documents.values()) keywords.put(d.id(), d.keywords().keySet());
+        return GraphEdge.fromSharedKeywords(keywords);
+    }
+
+    /** Edges from {@code document} to every other document it shares keywords with, strongest first. */
+    public List<GraphEdge> similarTo(Document document) {
+        Set<String> mine = document.keywords().keySet();
+        List<GraphEdge> edges = new ArrayList<>();
+        for (Document other : documents.values()) {
+            if (other.id().equals(document.id())) continue;
+            List<String> shared = new ArrayList<>();
+            for (String k : other.keywords().keySet()) if (mine.contains(k)) shared.add(k);
+            if (shared.isEmpty()) continue;
+            Collections.sort(shared);
+            edges.add(new GraphEdge(document.id(), other.id(), shared.size(), shared));
+        }
+        edges.sort(Comparator.comparingInt(GraphEdge::weight).reversed());
+        return edges;
+    }
+}
@@ -0,0 +1,35 @@
+package com.detextion.server;
+
+import com.detextion.graph.GraphExchange;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/** Just enough JSON writing for the analysis service's responses. */
+final class Json {
+
+    private Json() {}
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2);
+        appendQuoted(sb, s);
+        return sb.toString();
+    }
+
+    static void appendQuoted(StringBuilder sb, String s) {
+        GraphExchange.appendJsonString(sb, s);
+    }
+
+    /** {@code {"key": count, ...}} in the map's iteration order. */
+    static String counts(Map<String, Integer> counts) {
+        StringBuilder sb = new StringBuilder("{");
+        Iterator<Map.Entry<String, Integer>> it = counts.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> e = it.next();
+            appendQuoted(sb, e.getKey());
+            sb.append(':').append(e.getValue());
+            if (it.hasNext()) sb.append(',');
+        }
+        return sb.append('}').toString();
+    }
+}
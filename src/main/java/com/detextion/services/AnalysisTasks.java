@@ -0,0 +1,139 @@
+package com.detextion.services;
+
+import com.detextion.diagnostics.PerfStats;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.concurrent.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs analysis actions (summaries, comparisons, clustering) as cancellable background tasks.
+ *
+ * Each action has at most one task in flight: submitting it again cancels the stale one. Results are
+ * kept in a small LRU cache keyed by the action plus a SHA-256 of its inputs and parameters, so
+ * asking for the same analysis of the same text or document set again returns without recomputing.
+ *
+ * {@link #submit} must be called on the FX thread; callbacks are delivered there too.
+ */
+public class AnalysisTasks {
+
+    public static final int CACHE_ENTRIES = 64;
+
+    /** The computation; poll {@link Progress#isCancelled()} in long loops. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T compute(Progress progress) throws Exception;
+    }
+
+    public interface Progress {
+        void update(long done, long total);
+
+        boolean isCancelled();
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "analysis-task");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private final Map<String, Object> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(CACHE_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > CACHE_ENTRIES;
+                }
+            });
+    private final ReadOnlyIntegerWrapper activeCount = new ReadOnlyIntegerWrapper();
+    private final PerfStats.CacheCounter cacheStats = PerfStats.cache("analysis");
+
+    /** Number of tasks currently running, for binding a busy indicator. */
+    public ReadOnlyIntegerProperty activeCountProperty() {
+        return activeCount.getReadOnlyProperty();
+    }
+
+    /**
+     * Starts {@code work} for {@code action}, cancelling that action's previous task if it's still going.
+     * {@code inputs} identify the result for caching — input text, document names, parameters; they
+     * are hashed on the worker thread, so passing a large string costs the FX thread nothing.
+     */
+    public <T> Task<T> submit(String action, List<?> inputs, Work<T> work,
+                              Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<?> stale = running.remove(action);
+        if (stale != null) stale.cancel();
+
+        Task<T> task = new Task<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected T call() throws Exception {
+                String key = action + ':' + digest(inputs);
+                Object cached = cache.get(key);
+                if (cached != null) {
+                    cacheStats.hit();
+                    return (T) cached;
+                }
+                cacheStats.miss();
+
+                Task<T> self = this;
+                T result = work.compute(new Progress() {
+                    @Override
+                    public void update(long done, long total) {
+                        updateProgress(done, total);
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return self.isCancelled();
+                    }
+                });
+                if (isCancelled()) throw new CancellationException();
+                cache.put(key, result);
+                return result;
+            }
+        };
+
+        running.put(action, task);
+        activeCount.set(running.size());
+        task.setOnSucceeded(e -> {
+            finished(action, task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            finished(action, task);
+            onFailure.accept(task.getException());
+        });
+        task.setOnCancelled(e -> finished(action, task));
+        executor.execute(task);
+        return task;
+    }
+
+    public void cancelAll() {
+        for (Task<?> task : new ArrayList<>(running.values())) task.cancel();
+    }
+
+    private void finished(String action, Task<?> task) {
+        running.remove(action, task);
+        activeCount.set(running.size());
+    }
+
+    private static String digest(List<?> inputs) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (Object input : inputs) {
+                sha.update(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0); // separator, so ("ab","c") and ("a","bc") differ
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.detextion.services;
+
+import com.detextion.server.AnalysisServer;
+import javafx.application.Application;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Entry point for running from the plain class path (the AppCDS jar), where the java launcher
+ * refuses to start an {@link Application} subclass directly unless JavaFX is on the module path.
+ * With {@code --serve} it starts the headless {@link AnalysisServer} instead of the window.
+ */
+public final class Launcher {
+
+    private Launcher() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            AnalysisServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Application.launch(Main.class, args);
+    }
+}
@@ -0,0 +1,118 @@
+package com.detextion.services;
+
+import com.detextion.diagnostics.StartupMetrics;
+import com.detextion.textanalysis.TextInsights;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.FontMappers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Pays one-off initialization costs in the background right after the window is shown, so the first
+ * PDF the user opens isn't the one that pays them.
+ *
+ * The biggest is PDFBox's font mapping: the first lookup of a non-embedded font scans every system
+ * font to build its cache. The rest is class loading and static initialization — the text stripper,
+ * the keyword regexes, the SQLite native library and the Postgres, Hikari and Neo4j driver classes.
+ * No connection is opened; stores still connect on first use.
+ *
+ * Every step is best-effort: a failure only means that cost is paid later, on first use.
+ * {@link #main} runs the same steps headless, which is what the AppCDS training run records.
+ */
+public final class StartupWarmup {
+
+    private static final String SAMPLE_TEXT = """
+            Warming up the extraction path. Document analysis extracts keywords from every page, \
+            counts their frequency across the corpus and links documents that share keywords.""";
+
+    private static final int SAMPLE_PAGES = 4;
+    private static final int SAMPLE_LINES = 45;
+    private static final int SAMPLE_PASSES = 3;
+
+    private StartupWarmup() {}
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    /** Starts the warm-up on a low-priority daemon thread and returns immediately; {@code onDone} runs on that thread. */
+    public static void start(Runnable onDone) {
+        Thread thread = new Thread(() -> {
+            run();
+            onDone.run();
+        }, "startup-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public static void run() {
+        long start = System.nanoTime();
+        step("warm-up: pdf fonts", () -> FontMappers.instance().getFontBoxFont("Helvetica", null));
+        step("warm-up: pdf extraction", StartupWarmup::extractSample);
+        step("warm-up: text analysis", () -> TextInsights.keywordFrequency(SAMPLE_TEXT));
+        step("warm-up: sqlite", () -> {
+            Class.forName("org.sqlite.JDBC");
+            org.sqlite.SQLiteJDBCLoader.initialize(); // unpacks and loads the native library
+        });
+        step("warm-up: postgres", () -> {
+            Class.forName("org.postgresql.Driver");
+            Class.forName("com.zaxxer.hikari.HikariDataSource");
+        });
+        step("warm-up: neo4j", () -> Class.forName("org.neo4j.driver.GraphDatabase"));
+        StartupMetrics.mark("warm-up done", System.nanoTime() - start);
+    }
+
+    /**
+     * Builds a small PDF in memory and extracts it a few times: the first pass loads the parser and
+     * stripper classes, the rest get the hottest stripping code past the interpreter.
+     */
+    private static void extractSample() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < SAMPLE_PAGES; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 11);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 0; line < SAMPLE_LINES; line++) {
+                        content.showText(SAMPLE_TEXT.substring(0, 90));
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(bytes);
+        }
+        PDFExtractionService extraction = new PDFExtractionService();
+        for (int pass = 0; pass < SAMPLE_PASSES; pass++) {
+            try (PDDocument document = PDDocument.load(bytes.toByteArray())) {
+                extraction.extractPages(document);
+            }
+        }
+    }
+
+    private static void step(String phase, Step step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } catch (Exception | LinkageError e) {
+            System.err.println("Startup warm-up step failed (" + phase + "): " + e);
+            return;
+        }
+        StartupMetrics.mark(phase, System.nanoTime() - start);
+    }
+
+    /** Headless warm-up, for the AppCDS training run. */
+    public static void main(String[] args) {
+        run();
+    }
+}
@@ -0,0 +1,204 @@
+package com.detextion.storage;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.detextion.storage.CorpusWriter.*;
+
+/**
+ * Random-access reader for corpus files written by {@link CorpusWriter}.
+ *
+ * The file is memory-mapped; reading page {@code p} of document {@code d} is two fixed-width
+ * table lookups plus inflating that one page's block, independent of corpus size. Files larger than
+ * a single mapping can address fall back to mapping each block on demand.
+ *
+ * Instances are safe to share between threads.
+ */
+public class CorpusReader implements AutoCloseable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long base;
+    private final MappedByteBuffer whole;     // null when the file is too large to map at once
+    private final ByteBuffer pageTable;
+    private final ByteBuffer docTable;
+    private final List<String> names;
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private final String[] dictionary;
+    private final int pageCount;
+
+    public CorpusReader(Path file) throws IOException {
+        this(file, 0);
+    }
+
+    /** Opens a corpus section that starts at {@code base} inside a larger file. */
+    public CorpusReader(Path file, long base) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.base = base;
+        try {
+            long size = channel.size() - base;
+            if (size < HEADER_BYTES) throw new IOException("Truncated corpus file: " + file);
+            whole = size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, base, size) : null;
+
+            ByteBuffer header = region(0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) throw new IOException("Not a DeTextion corpus file: " + file);
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported corpus version " + version);
+            int docCount = header.getInt();
+            pageCount = header.getInt();
+            int termCount = header.getInt();
+            header.getInt();
+            long directory = header.getLong();
+
+            long docTableOffset = directory + (long) pageCount * PAGE_ENTRY_BYTES;
+            long stringsOffset = docTableOffset + (long) docCount * DOC_ENTRY_BYTES;
+            if (docCount < 0 || pageCount < 0 || termCount < 0 || directory < HEADER_BYTES || stringsOffset > size)
+                throw new IOException("Truncated or corrupt corpus file: " + file);
+            pageTable = region(directory, (long) pageCount * PAGE_ENTRY_BYTES);
+            docTable = region(docTableOffset, (long) docCount * DOC_ENTRY_BYTES);
+
+            ByteBuffer strings = region(stringsOffset, size - stringsOffset);
+            List<String> docNames = new ArrayList<>(docCount);
+            for (int i = 0; i < docCount; i++) {
+                String name = readString(strings);
+                docNames.add(name);
+                nameIndex.putIfAbsent(name, i);
+            }
+            names = Collections.unmodifiableList(docNames);
+            dictionary = new String[termCount];
+            for (int i = 0; i < termCount; i++) dictionary[i] = readString(strings);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (e instanceof BufferUnderflowException || e instanceof IllegalStateException)
+                throw new IOException("Truncated or corrupt corpus file: " + file, e);
+            throw e;
+        }
+    }
+
+    /** The mapped file; it can't be replaced while this reader is open on every platform. */
+    public Path file() {
+        return file;
+    }
+
+    public int documentCount() {
+        return names.size();
+    }
+
+    public List<String> documentNames() {
+        return names;
+    }
+
+    /** Index of the document with this name, or -1. */
+    public int indexOf(String name) {
+        return nameIndex.getOrDefault(name, -1);
+    }
+
+    public int pageCount(int doc) {
+        return docTable.getInt(doc * DOC_ENTRY_BYTES + 4);
+    }
+
+    public int totalPages() {
+        return pageCount;
+    }
+
+    /** Decompresses a single page. */
+    public String pageText(int doc, int page) throws IOException {
+        int p = globalPage(doc, page);
+        int base = p * PAGE_ENTRY_BYTES;
+        long offset = pageTable.getLong(base);
+        int compressed = pageTable.getInt(base + 8);
+        int raw = pageTable.getInt(base + 12);
+
+        ByteBuffer block = region(offset, compressed);
+        byte[] out = new byte[raw];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block);
+            int n = 0;
+            while (n < raw && !inflater.finished()) n += inflater.inflate(out, n, raw - n);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt page block (doc " + doc + ", page " + page + ")", e);
+        } finally {
+            inflater.end();
+        }
+        return new String(out, StandardCharsets.UTF_8);
+    }
+
+    /** Full text of a document (all pages concatenated). */
+    public String documentText(int doc) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int p = 0, n = pageCount(doc); p < n; p++) sb.append(pageText(doc, p));
+        return sb.toString();
+    }
+
+    /** The page's token stream as term IDs; resolve with {@link #term}. */
+    public int[] termIds(int doc, int page) {
+        int base = globalPage(doc, page) * PAGE_ENTRY_BYTES;
+        long offset = pageTable.getLong(base + 16);
+        int bytes = pageTable.getInt(base + 24);
+        int tokens = pageTable.getInt(base + 28);
+
+        ByteBuffer buf = region(offset, bytes);
+        int[] ids = new int[tokens];
+        for (int i = 0; i < tokens; i++) {
+            int value = 0, shift = 0;
+            byte b;
+            do {
+                b = buf.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            ids[i] = value;
+        }
+        return ids;
+    }
+
+    public String term(int id) {
+        return dictionary[id];
+    }
+
+    public int termCount() {
+        return dictionary.length;
+    }
+
+    private int globalPage(int doc, int page) {
+        int first = docTable.getInt(doc * DOC_ENTRY_BYTES);
+        int count = docTable.getInt(doc * DOC_ENTRY_BYTES + 4);
+        if (page < 0 || page >= count)
+            throw new IndexOutOfBoundsException("Page " + page + " of document " + doc + " (" + count + " pages)");
+        return first + page;
+    }
+
+    /** An independent, zero-positioned view of [offset, offset + length). */
+    private ByteBuffer region(long offset, long length) {
+        if (whole != null) return whole.slice((int) offset, (int) length);
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, base + offset, length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't map corpus region at " + offset, e);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0 || length > buf.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
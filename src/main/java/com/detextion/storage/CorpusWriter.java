@@ -0,0 +1,175 @@
+package com.detextion.storage;
+
+import com.detextion.textanalysis.Tokenizer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a compact binary corpus file (.dtxc) that {@link CorpusReader} can seek into.
+ *
+ * <pre>
+ * header (32 bytes)   magic "DTXC", version, documentCount, pageCount, termCount, reserved, directoryOffset
+ * page blocks         per page: deflated UTF-8 text, then its token stream as varint term IDs
+ * directory           page table   pageCount × 32 bytes (textOffset, compressedLen, rawLen, termsOffset, termsLen, tokenCount)
+ *                     doc table    documentCount × 8 bytes (firstPage, pageCount)
+ *                     names        documentCount × (len, UTF-8)
+ *                     dictionary   termCount × (len, UTF-8), index = term ID
+ * </pre>
+ *
+ * Every page is compressed on its own, so reading one page never inflates its neighbours,
+ * and the fixed-width tables make locating any page a constant-time lookup. A page's tokens are the
+ * words {@link Tokenizer#DEFAULT} finds, the same ones the rest of the app counts.
+ */
+public class CorpusWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x44545843; // "DTXC"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int PAGE_ENTRY_BYTES = 32;
+    static final int DOC_ENTRY_BYTES = 8;
+
+    private final FileChannel channel;
+    private final long base;
+    private final OutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final byte[] deflateBuf = new byte[64 * 1024];
+    private long position = HEADER_BYTES;
+
+    private final List<long[]> pageEntries = new ArrayList<>();   // {textOffset, compLen, rawLen, termsOffset, termsLen, tokens}
+    private final List<int[]> docEntries = new ArrayList<>();     // {firstPage, pageCount}
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private boolean closed;
+
+    public CorpusWriter(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), 0);
+    }
+
+    /**
+     * Writes the corpus as a section of a larger file starting at {@code base}; all stored offsets
+     * are relative to it. Read it back with {@link CorpusReader#CorpusReader(Path, long)}.
+     */
+    public CorpusWriter(Path file, long base) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE), base);
+    }
+
+    private CorpusWriter(FileChannel channel, long base) throws IOException {
+        this.channel = channel;
+        this.base = base;
+        channel.truncate(base);
+        channel.position(base + HEADER_BYTES);
+        out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+    }
+
+    /** Appends one document, page by page. Returns its index in the corpus. */
+    public int addDocument(String name, List<String> pages) throws IOException {
+        docEntries.add(new int[] { pageEntries.size(), pages.size() });
+        names.add(name);
+        for (String page : pages) writePage(page);
+        return names.size() - 1;
+    }
+
+    private void writePage(String page) throws IOException {
+        byte[] raw = page.getBytes(StandardCharsets.UTF_8);
+
+        long textOffset = position;
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        long compressed = 0;
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuf);
+            out.write(deflateBuf, 0, n);
+            compressed += n;
+        }
+        position += compressed;
+
+        long termsOffset = position;
+        long termsBytes = 0;
+        int tokens = 0;
+        byte[] varint = new byte[5];
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(page); t.next(); ) {
+            int n = writeVarint(varint, termId(t.term()));
+            out.write(varint, 0, n);
+            termsBytes += n;
+            tokens++;
+        }
+        position += termsBytes;
+
+        pageEntries.add(new long[] { textOffset, compressed, raw.length, termsOffset, termsBytes, tokens });
+    }
+
+    private int termId(String term) {
+        Integer id = dictionary.get(term);
+        if (id == null) {
+            id = terms.size();
+            dictionary.put(term, id);
+            terms.add(term);
+        }
+        return id;
+    }
+
+    private static int writeVarint(byte[] buf, int value) {
+        int n = 0;
+        while ((value & ~0x7F) != 0) {
+            buf[n++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[n++] = (byte) value;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            long directoryOffset = position;
+            DataOutputStream dir = new DataOutputStream(out);
+            for (long[] p : pageEntries) {
+                dir.writeLong(p[0]);
+                dir.writeInt((int) p[1]);
+                dir.writeInt((int) p[2]);
+                dir.writeLong(p[3]);
+                dir.writeInt((int) p[4]);
+                dir.writeInt((int) p[5]);
+            }
+            for (int[] d : docEntries) {
+                dir.writeInt(d[0]);
+                dir.writeInt(d[1]);
+            }
+            for (String name : names) writeString(dir, name);
+            for (String term : terms) writeString(dir, term);
+            dir.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION)
+                  .putInt(docEntries.size()).putInt(pageEntries.size()).putInt(terms.size()).putInt(0)
+                  .putLong(directoryOffset)
+                  .flip();
+            channel.write(header, base);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private static void writeString(DataOutputStream dir, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dir.writeInt(bytes.length);
+        dir.write(bytes);
+    }
+}
@@ -0,0 +1,239 @@
+package com.detextion.storage;
+
+import com.detextion.textanalysis.Tokenizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * A corpus kept outside the Java heap as one stream of term IDs, four bytes per token, with a
+ * per-document table of where each document's tokens start.
+ *
+ * Tokens live in fixed-size chunks of direct memory, or of a memory-mapped file so the OS can page
+ * a corpus larger than RAM. Only the dictionary — one {@code String} per distinct term — is on the
+ * heap; text is tokenized straight into the stream without a {@code String} per word, and analysis
+ * reads IDs back through {@link #token} or {@link #forEachToken} without boxing.
+ *
+ * Tokens are the words {@link Tokenizer#DEFAULT} finds, the same ones {@code TextInsights.countTerms}
+ * counts; ASCII words are hashed and matched in place, others go through {@link Tokenizer.Cursor#term()}.
+ * {@link #add} is synchronized; readers may run concurrently and see every document whose
+ * {@code add} has returned.
+ *
+ * Only {@code IngestionHarness --corpus offheap|mapped} uses it so far. A desktop session still keeps
+ * page strings, since the viewer, search and exports need the original text, which term IDs can't
+ * give back.
+ */
+public final class TokenStore implements AutoCloseable {
+
+    private static final int CHUNK_SHIFT = 20;                      // 1M tokens = 4 MB per chunk
+    private static final int CHUNK_TOKENS = 1 << CHUNK_SHIFT;
+    private static final long CHUNK_BYTES = (long) CHUNK_TOKENS * Integer.BYTES;
+
+    private final FileChannel channel; // null for direct memory
+    private volatile IntBuffer[] chunks = new IntBuffer[0];
+    private volatile LongBuffer starts = allocate(64 * Long.BYTES).asLongBuffer(); // doc → first token; entry [docs] = end
+    private volatile String[] names = new String[64];
+    private volatile int documents;
+    private long size;
+
+    // Dictionary: open addressing over lower-cased term hashes, IDs into terms
+    private volatile String[] terms = new String[1024];
+    private int termCount;
+    private int publishedTerms; // termCount as of the last completed add
+    private int[] table = new int[2048]; // term ID + 1, 0 = empty
+    private int[] hashes = new int[1024];
+
+    private TokenStore(FileChannel channel) {
+        this.channel = channel;
+        starts.put(0, 0);
+    }
+
+    /** Tokens in direct (off-heap) memory, released when the store is garbage collected. */
+    public static TokenStore inMemory() {
+        return new TokenStore(null);
+    }
+
+    /** Tokens in {@code file}, mapped chunk by chunk as the stream grows; the file is overwritten. */
+    public static TokenStore mapped(Path file) throws IOException {
+        return new TokenStore(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    // ===========================================================
+    // Writing
+    // ===========================================================
+
+    /** Tokenizes {@code text} onto the end of the stream as a new document; returns its index. */
+    public synchronized int add(String name, CharSequence text) throws IOException {
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+            if (t.isAscii()) {
+                int hash = 0;
+                for (int i = t.start(); i < t.end(); i++) hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+                append(termId(text, t.start(), t.end(), hash));
+            } else {
+                String term = t.term(); // already lower-case, so matching it in place leaves it as is
+                append(termId(term, 0, term.length(), term.hashCode()));
+            }
+        }
+
+        int doc = documents;
+        if (doc + 2 > starts.capacity()) {
+            LongBuffer grown = allocate(starts.capacity() * 2L * Long.BYTES).asLongBuffer();
+            grown.put(0, starts, 0, doc + 1);
+            starts = grown;
+        }
+        starts.put(doc + 1, size);
+        if (doc == names.length) names = Arrays.copyOf(names, doc * 2);
+        names[doc] = name;
+        publishedTerms = termCount;
+        documents = doc + 1; // publishes the tokens, names and terms written above
+        return doc;
+    }
+
+    private void append(int id) throws IOException {
+        int chunk = (int) (size >>> CHUNK_SHIFT);
+        if (chunk == chunks.length) {
+            IntBuffer[] grown = Arrays.copyOf(chunks, chunk + 1);
+            grown[chunk] = newChunk(chunk);
+            chunks = grown;
+        }
+        chunks[chunk].put((int) (size & (CHUNK_TOKENS - 1)), id);
+        size++;
+    }
+
+    private IntBuffer newChunk(int chunk) throws IOException {
+        if (channel == null) return allocate(CHUNK_BYTES).asIntBuffer();
+        return channel.map(FileChannel.MapMode.READ_WRITE, chunk * CHUNK_BYTES, CHUNK_BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        return ByteBuffer.allocateDirect(Math.toIntExact(bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /** The ID of the lower-cased {@code text[start, end)}, adding it to the dictionary if new. */
+    private int termId(CharSequence text, int start, int end, int hash) {
+        int mask = table.length - 1;
+        String[] known = terms;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) break;
+            int id = entry - 1;
+            if (hashes[id] == hash && equalsLowerCase(known[id], text, start, end)) return id;
+        }
+
+        int id = termCount++;
+        if (id == known.length) {
+            known = Arrays.copyOf(known, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        known[id] = text.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+        hashes[id] = hash;
+        terms = known;
+        if (termCount * 2 > table.length) rehash();
+        else insert(table, id, hash);
+        return id;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        for (int id = 0; id < termCount; id++) insert(table, id, hashes[id]);
+    }
+
+    private static void insert(int[] table, int id, int hash) {
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = id + 1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equalsLowerCase(String term, CharSequence text, int start, int end) {
+        if (term.length() != end - start) return false;
+        for (int i = 0; i < term.length(); i++)
+            if (term.charAt(i) != Character.toLowerCase(text.charAt(start + i))) return false;
+        return true;
+    }
+
+    // ===========================================================
+    // Reading
+    // ===========================================================
+
+    public int documentCount() {
+        return documents;
+    }
+
+    public String name(int doc) {
+        Objects.checkIndex(doc, documents);
+        return names[doc];
+    }
+
+    /** Index of the document's first token in the stream. */
+    public long start(int doc) {
+        Objects.checkIndex(doc, documents);
+        return starts.get(doc);
+    }
+
+    public long tokenCount(int doc) {
+        Objects.checkIndex(doc, documents);
+        return starts.get(doc + 1) - starts.get(doc);
+    }
+
+    /** Tokens in all documents. */
+    public long totalTokens() {
+        int docs = documents;
+        return starts.get(docs);
+    }
+
+    /** The term ID at {@code index} of the stream. */
+    public int token(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & (CHUNK_TOKENS - 1)));
+    }
+
+    public void forEachToken(int doc, IntConsumer action) {
+        long from = start(doc), to = starts.get(doc + 1);
+        IntBuffer[] view = chunks;
+        for (long i = from; i < to; ) {
+            IntBuffer chunk = view[(int) (i >>> CHUNK_SHIFT)];
+            int offset = (int) (i & (CHUNK_TOKENS - 1));
+            int end = (int) Math.min(CHUNK_TOKENS, offset + (to - i));
+            for (int j = offset; j < end; j++) action.accept(chunk.get(j));
+            i += end - offset;
+        }
+    }
+
+    /** Distinct terms in the published documents; IDs run from 0 to this. */
+    public int termCount() {
+        int docs = documents; // the volatile read makes publishedTerms current
+        return docs == 0 ? 0 : publishedTerms;
+    }
+
+    public String term(int id) {
+        return terms[id];
+    }
+
+    /** Direct or mapped memory holding the token stream and document table. */
+    public long offHeapBytes() {
+        return chunks.length * CHUNK_BYTES + (long) starts.capacity() * Long.BYTES;
+    }
+
+    /**
+     * Closes the backing file, if any. Direct and mapped buffers are released by the garbage
+     * collector once the store is unreachable; don't read from a closed store.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) channel.close();
+    }
+}
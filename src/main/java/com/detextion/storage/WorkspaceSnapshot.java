@@ -0,0 +1,142 @@
+package com.detextion.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Saves and restores an analysis session (.dtxw) so it can be reopened without re-parsing PDFs or
+ * re-running the layout.
+ *
+ * <pre>
+ * magic "DTXW", version, metadataLength
+ * metadata     documents and their keywords, corpus keyword counts, node positions
+ * corpus       the documents' page text as an embedded {@link CorpusWriter} section
+ * </pre>
+ *
+ * {@link #open} reads only the metadata, which is all the graph and chart need; page text stays
+ * on disk and is read through {@link Workspace#corpus()} when a document is actually viewed.
+ */
+public final class WorkspaceSnapshot {
+
+    private static final int MAGIC = 0x44545857; // "DTXW"
+    private static final int VERSION = 1;
+    private static final int PREAMBLE_BYTES = 12;
+
+    private WorkspaceSnapshot() {}
+
+    /** A node's saved layout position. */
+    public record Position(double x, double y) {}
+
+    /** Everything needed to redraw a session, plus lazy access to its text. */
+    public record Workspace(Map<String, Set<String>> documentKeywords,
+                            Map<String, Integer> keywordFrequency,
+                            Map<String, Position> positions,
+                            CorpusReader corpus) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            corpus.close();
+        }
+    }
+
+    /** Supplies a document's page text while saving (from memory, or from a previously opened workspace). */
+    @FunctionalInterface
+    public interface PageSource {
+        List<String> pages(String document) throws IOException;
+    }
+
+    public static void save(Path file,
+                            Map<String, Set<String>> documentKeywords,
+                            Map<String, Integer> keywordFrequency,
+                            Map<String, Position> positions,
+                            PageSource pages) throws IOException {
+        ByteArrayOutputStream metaBytes = new ByteArrayOutputStream();
+        try (DataOutputStream meta = new DataOutputStream(metaBytes)) {
+            meta.writeInt(documentKeywords.size());
+            for (Map.Entry<String, Set<String>> d : documentKeywords.entrySet()) {
+                meta.writeUTF(d.getKey());
+                meta.writeInt(d.getValue().size());
+                for (String k : d.getValue()) meta.writeUTF(k);
+            }
+            meta.writeInt(keywordFrequency.size());
+            for (Map.Entry<String, Integer> k : keywordFrequency.entrySet()) {
+                meta.writeUTF(k.getKey());
+                meta.writeInt(k.getValue());
+            }
+            meta.writeInt(positions.size());
+            for (Map.Entry<String, Position> p : positions.entrySet()) {
+                meta.writeUTF(p.getKey());
+                meta.writeDouble(p.getValue().x());
+                meta.writeDouble(p.getValue().y());
+            }
+        }
+
+        // Write to a temp file and move into place, so a failed save never clobbers the old snapshot
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_BYTES)
+                        .putInt(MAGIC).putInt(VERSION).putInt(metaBytes.size());
+                preamble.flip();
+                ch.write(preamble);
+                ch.write(ByteBuffer.wrap(metaBytes.toByteArray()));
+            }
+
+            try (CorpusWriter corpus = new CorpusWriter(tmp, PREAMBLE_BYTES + metaBytes.size())) {
+                for (String doc : documentKeywords.keySet()) corpus.addDocument(doc, pages.pages(doc));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /** Reads the metadata and maps the text section; no page is decompressed until asked for. */
+    public static Workspace open(Path file) throws IOException {
+        int metaLength;
+        Map<String, Set<String>> docs = new LinkedHashMap<>();
+        Map<String, Integer> freq = new HashMap<>();
+        Map<String, Position> positions = new HashMap<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a DeTextion workspace: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported workspace version " + version);
+            metaLength = in.readInt();
+            if (metaLength < 0) throw new IOException("Corrupt workspace metadata: " + file);
+
+            int docCount = count(in, metaLength);
+            for (int i = 0; i < docCount; i++) {
+                String name = in.readUTF();
+                int n = count(in, metaLength);
+                Set<String> keywords = new LinkedHashSet<>(n * 2);
+                for (int j = 0; j < n; j++) keywords.add(in.readUTF());
+                docs.put(name, keywords);
+            }
+            int freqCount = count(in, metaLength);
+            for (int i = 0; i < freqCount; i++) freq.put(in.readUTF(), in.readInt());
+            int posCount = count(in, metaLength);
+            for (int i = 0; i < posCount; i++) positions.put(in.readUTF(), new Position(in.readDouble(), in.readDouble()));
+        }
+
+        return new Workspace(docs, freq, positions, new CorpusReader(file, PREAMBLE_BYTES + metaLength));
+    }
+
+    /** A count from the metadata; each entry takes at least a byte, so none can exceed its length. */
+    private static int count(DataInputStream in, int metaLength) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > metaLength) throw new IOException("Corrupt workspace metadata: count " + n);
+        return n;
+    }
+}
@@ -0,0 +1,210 @@
+package com.detextion.textanalysis;
+
+import com.detextion.diagnostics.PerfEvents;
+import com.detextion.services.AnalysisTasks;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Which of a document's keywords appear near each other: a topic map of one document rather than
+ * the document-to-document graph.
+ *
+ * The text is tokenized once into term IDs and the most frequent terms become the nodes. Every
+ * pair of nodes within {@code window} tokens of each other counts as one co-occurrence. Pairs are
+ * counted into a sparse symmetric matrix — a {@link LongIntMap} keyed by the packed
+ * (lower index, higher index) pair — over chunks of the token stream in parallel, and the chunk
+ * tables are merged at the end.
+ *
+ * The edges kept are the strongest by {@link Ranking}, after first giving every node its single
+ * strongest edge so that no keyword is left floating on its own.
+ */
+public final class KeywordCooccurrence {
+
+    public static final int DEFAULT_TERMS = 60;
+    public static final int DEFAULT_WINDOW = 10;
+    public static final int DEFAULT_EDGES = 150;
+    public static final int MIN_COUNT = 3;
+
+    private static final int CHUNK_OCCURRENCES = 1 << 15;
+
+    /** How edges compete for the kept slots. */
+    public enum Ranking {
+        /** Raw co-occurrence count: favors the most frequent keywords. */
+        COUNT,
+        /** Pointwise mutual information: favors pairs that occur together more than their frequencies predict. */
+        PMI
+    }
+
+    public record Term(String term, int count) {}
+
+    /** An undirected edge; {@code a} sorts before {@code b}. */
+    public record Pair(String a, String b, int count, double pmi) {}
+
+    /** Nodes most frequent first, edges strongest first. */
+    public record Graph(List<Term> terms, List<Pair> pairs, long tokens) {}
+
+    private KeywordCooccurrence() {}
+
+    public static Graph build(String text) {
+        return build(text, DEFAULT_TERMS, DEFAULT_WINDOW, DEFAULT_EDGES, Ranking.PMI, TextInsights.NO_PROGRESS);
+    }
+
+    /**
+     * @param terms    number of keywords to use as nodes
+     * @param window   tokens (stopwords included) two keywords may be apart to count as co-occurring
+     * @param maxEdges edges to keep; at least one per connected node is kept regardless
+     */
+    public static Graph build(String text, int terms, int window, int maxEdges, Ranking ranking,
+                              AnalysisTasks.Progress progress) {
+        if (window < 2) throw new IllegalArgumentException("window must be at least 2 tokens");
+        PerfEvents.Similarity event = new PerfEvents.Similarity();
+        event.begin();
+
+        Tokens tokens = tokenize(text);
+        int[] nodeIds = topTerms(tokens, terms);
+        int[] nodeOf = new int[tokens.words.size()];
+        Arrays.fill(nodeOf, -1);
+        for (int n = 0; n < nodeIds.length; n++) nodeOf[nodeIds[n]] = n;
+
+        // Only node occurrences matter for pair counting: keep their positions and node indices
+        int count = 0;
+        for (int i = 0; i < tokens.size; i++) if (nodeOf[tokens.ids[i]] >= 0) count++;
+        int occurrences = count;
+        int[] position = new int[occurrences];
+        int[] node = new int[occurrences];
+        for (int i = 0, k = 0; i < tokens.size; i++) {
+            int id = tokens.ids[i];
+            if (nodeOf[id] < 0) continue;
+            position[k] = i;
+            node[k++] = nodeOf[id];
+        }
+
+        int chunks = (occurrences + CHUNK_OCCURRENCES - 1) / CHUNK_OCCURRENCES;
+        LongIntMap matrix = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    if (progress.isCancelled()) return new LongIntMap();
+                    return countPairs(position, node, c * CHUNK_OCCURRENCES,
+                            Math.min(occurrences, (c + 1) * CHUNK_OCCURRENCES), window);
+                })
+                .reduce((a, b) -> {
+                    LongIntMap into = a.size() >= b.size() ? a : b;
+                    into.addAll(into == a ? b : a);
+                    return into;
+                })
+                .orElseGet(LongIntMap::new);
+        if (progress.isCancelled()) return new Graph(List.of(), List.of(), tokens.size);
+
+        Graph graph = select(tokens, nodeIds, matrix, window, maxEdges, ranking);
+        event.operation = "keyword co-occurrence";
+        event.documents = 1;
+        event.edges = graph.pairs().size();
+        event.commit();
+        return graph;
+    }
+
+    /**
+     * Pairs starting at node occurrences {@code from} to {@code to}. The window may reach past
+     * {@code to}; those pairs belong to this chunk because their first occurrence does.
+     */
+    private static LongIntMap countPairs(int[] position, int[] node, int from, int to, int window) {
+        LongIntMap counts = new LongIntMap();
+        for (int k = from; k < to; k++) {
+            int a = node[k];
+            for (int m = k + 1; m < position.length && position[m] - position[k] < window; m++) {
+                int b = node[m];
+                if (a != b) counts.increment(pairKey(a, b));
+            }
+        }
+        return counts;
+    }
+
+    /** Lower index in the high half, higher + 1 in the low half, so no key is 0. */
+    private static long pairKey(int a, int b) {
+        int lo = Math.min(a, b), hi = Math.max(a, b);
+        return ((long) lo << 32) | (hi + 1);
+    }
+
+    private static Graph select(Tokens tokens, int[] nodeIds, LongIntMap matrix, int window, int maxEdges,
+                                Ranking ranking) {
+        List<Term> terms = new ArrayList<>(nodeIds.length);
+        for (int id : nodeIds) terms.add(new Term(tokens.words.get(id), tokens.counts[id]));
+
+        // Expected co-occurrences of a and b if independent: each a sees 2(window - 1) neighbors
+        double neighborShare = 2.0 * (window - 1) / Math.max(1, tokens.size);
+        List<Pair> candidates = new ArrayList<>();
+        for (int slot = 0; slot < matrix.capacity(); slot++) {
+            long key = matrix.keyAt(slot);
+            int count = matrix.valueAt(slot);
+            if (key == 0 || count < MIN_COUNT) continue;
+            Term a = terms.get((int) (key >>> 32));
+            Term b = terms.get((int) key - 1);
+            double pmi = Math.log(count / (a.count() * (double) b.count() * neighborShare));
+            candidates.add(a.term().compareTo(b.term()) <= 0
+                    ? new Pair(a.term(), b.term(), count, pmi)
+                    : new Pair(b.term(), a.term(), count, pmi));
+        }
+        Comparator<Pair> strongest = ranking == Ranking.COUNT
+                ? Comparator.comparingInt(Pair::count).thenComparingDouble(Pair::pmi)
+                : Comparator.comparingDouble(Pair::pmi).thenComparingInt(Pair::count);
+        candidates.sort(strongest.reversed().thenComparing(Pair::a).thenComparing(Pair::b));
+
+        Set<Pair> kept = new LinkedHashSet<>();
+        Set<String> connected = new HashSet<>();
+        for (Pair p : candidates) {
+            if (!connected.contains(p.a()) || !connected.contains(p.b())) kept.add(p);
+            connected.add(p.a());
+            connected.add(p.b());
+        }
+        for (Pair p : candidates) {
+            if (kept.size() >= maxEdges) break;
+            kept.add(p);
+        }
+        List<Pair> pairs = new ArrayList<>(kept);
+        pairs.sort(strongest.reversed().thenComparing(Pair::a).thenComparing(Pair::b));
+        return new Graph(terms, pairs, tokens.size);
+    }
+
+    /** The {@code limit} most frequent term IDs with at least {@link #MIN_COUNT} occurrences. */
+    private static int[] topTerms(Tokens tokens, int limit) {
+        return IntStream.range(0, tokens.words.size())
+                .filter(id -> tokens.counts[id] >= MIN_COUNT && TextInsights.isTerm(tokens.words.get(id)))
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(id -> tokens.counts[id]).reversed()
+                        .thenComparing(tokens.words::get))
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // ===========================================================
+    // Tokenizing
+    // ===========================================================
+
+    private static final class Tokens {
+        final List<String> words = new ArrayList<>();
+        int[] counts = new int[1024];
+        int[] ids = new int[4096]; // term ID per token position
+        int size;
+    }
+
+    private static Tokens tokenize(String text) {
+        Tokens t = new Tokens();
+        Map<String, Integer> dictionary = new HashMap<>();
+        for (Tokenizer.Cursor cursor = Tokenizer.DEFAULT.tokens(text); cursor.next(); ) {
+            String word = cursor.term();
+
+            Integer id = dictionary.get(word);
+            if (id == null) {
+                id = t.words.size();
+                dictionary.put(word, id);
+                t.words.add(word);
+                if (id == t.counts.length) t.counts = Arrays.copyOf(t.counts, id * 2);
+            }
+            t.counts[id]++;
+            if (t.size == t.ids.length) t.ids = Arrays.copyOf(t.ids, t.size * 2);
+            t.ids[t.size++] = id;
+        }
+        return t;
+    }
+}
@@ -27,17 +27,11 @@ public class KeywordExtractor {
     public static Map<String, Integer> extractImportantKeywords(String text) {
         if (text == null || text.isEmpty()) return Map.of();
 
-        // Normalize text: lowercase and remove punctuation
-        text = text.toLowerCase(Locale.ROOT).replaceAll("[^a-z\\s]", " ");
-
-        // Split into words, remove stopwords and very short tokens
-        List<String> words = Arrays.stream(text.split("\\s+"))
-                .filter(w -> w.length() > 3 && !STOPWORDS.contains(w))
-                .collect(Collectors.toList());
-
-        // Count frequency
+        // Lower-cased words in any script; remove stopwords, numbers and very short tokens
         Map<String, Integer> freq = new HashMap<>();
-        for (String w : words) {
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+            String w = t.term();
+            if (Character.isDigit(w.charAt(0)) || STOPWORDS.contains(w) || !Tokenizer.DEFAULT.isTerm(w)) continue;
             freq.put(w, freq.getOrDefault(w, 0) + 1);
         }
 
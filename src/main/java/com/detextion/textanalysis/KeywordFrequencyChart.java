@@ -10,16 +10,45 @@ import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.chart.ui.RectangleInsets;
 
 import javax.swing.*;
+import javax.swing.Timer;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Displays a bar chart showing keyword frequency with improved visuals.
+ *
+ * There is one chart window, reused across calls. Counts can be fed in from any thread while a corpus
+ * is loading ({@link #addCounts}); the top keywords are kept up to date incrementally and the window
+ * picks up changes on the Swing thread at most {@value #REPAINT_INTERVAL_MS} ms apart, so a burst
+ * of updates costs one repaint.
  */
 public class KeywordFrequencyChart {
 
+    private static final int TOP_K = 20;
+    private static final int REPAINT_INTERVAL_MS = 250;
+    private static final KeywordFrequencyChart SHARED = new KeywordFrequencyChart();
+
+    // Counting state, guarded by this. Counts only grow between resets, so a term that drops out of
+    // the top set can only get back in through its own update — which is where we check for it.
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final TreeSet<Map.Entry<String, Integer>> top = new TreeSet<>(
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+    private boolean dirty;
+
+    // Swing state, only touched on the EDT
+    private JFrame frame;
+    private JFreeChart barChart;
+    private DefaultCategoryDataset dataset;
+    private Timer repaintTimer;
+
+    private KeywordFrequencyChart() {}
+
+    /** The chart window's model; feed it during ingestion and call {@link #show} to watch it fill in. */
+    public static KeywordFrequencyChart shared() {
+        return SHARED;
+    }
+
     /**
      * Displays a sorted keyword frequency chart.
      *
@@ -27,28 +56,80 @@ public class KeywordFrequencyChart {
      */
     public static void showChart(Map<String, Integer> frequencyMap) {
         if (frequencyMap == null || frequencyMap.isEmpty()) {
-            JOptionPane.showMessageDialog(null,
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
                     "No keyword frequency data available.",
                     "Information",
-                    JOptionPane.INFORMATION_MESSAGE);
+                    JOptionPane.INFORMATION_MESSAGE));
             return;
         }
+        SHARED.reset();
+        SHARED.addCounts(frequencyMap);
+        SHARED.show();
+    }
 
-        // ✅ Sort keywords by frequency (descending)
-        List<Map.Entry<String, Integer>> sortedEntries = frequencyMap.entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(20) // show top 20 keywords
-                .collect(Collectors.toList());
+    /** Drops all counts (a new corpus is being loaded). */
+    public synchronized void reset() {
+        counts.clear();
+        top.clear();
+        dirty = true;
+    }
 
-        // ✅ Prepare dataset
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+    /** Adds a batch of keyword counts; safe to call from any thread. */
+    public synchronized void addCounts(Map<String, Integer> delta) {
+        for (Map.Entry<String, Integer> e : delta.entrySet()) {
+            String term = e.getKey();
+            Integer old = counts.get(term);
+            int updated = (old == null ? 0 : old) + e.getValue();
+            counts.put(term, updated);
+
+            if (old != null && top.remove(Map.entry(term, old))) {
+                top.add(Map.entry(term, updated));
+            } else if (top.size() < TOP_K) {
+                top.add(Map.entry(term, updated));
+            } else if (updated > top.last().getValue()) {
+                top.pollLast();
+                top.add(Map.entry(term, updated));
+            }
+        }
+        dirty = true;
+    }
+
+    private synchronized List<Map.Entry<String, Integer>> takeTopIfChanged() {
+        if (!dirty) return null;
+        dirty = false;
+        return new ArrayList<>(top);
+    }
+
+    /** Opens the window (or brings it forward) on the Swing thread. */
+    public void show() {
+        SwingUtilities.invokeLater(() -> {
+            if (frame == null) buildFrame();
+            applyUpdates();
+            repaintTimer.start();
+            frame.setVisible(true);
+            frame.toFront();
+        });
+    }
+
+    /** Timer tick: push whatever changed since the last tick into the dataset as one chart change. */
+    private void applyUpdates() {
+        List<Map.Entry<String, Integer>> sortedEntries = takeTopIfChanged();
+        if (sortedEntries == null) return;
+
+        barChart.setNotify(false);
+        dataset.clear();
         for (Map.Entry<String, Integer> entry : sortedEntries) {
             dataset.addValue(entry.getValue(), "Frequency", entry.getKey());
         }
+        barChart.setNotify(true);
+    }
+
+    private void buildFrame() {
+        // ✅ Prepare dataset
+        dataset = new DefaultCategoryDataset();
 
         // ✅ Create bar chart
-        JFreeChart barChart = ChartFactory.createBarChart(
+        barChart = ChartFactory.createBarChart(
                 "Keyword Frequency Analysis",  // Chart title
                 "Keyword",                     // X-axis label
                 "Count",                       // Y-axis label
@@ -69,18 +150,7 @@ public class KeywordFrequencyChart {
 
         // ✅ Customize bars
         BarRenderer renderer = (BarRenderer) plot.getRenderer();
-        Color[] gradientColors = {
-                new Color(0, 191, 255),  // DeepSkyBlue
-                new Color(0, 140, 255),
-                new Color(65, 105, 225),
-                new Color(100, 149, 237)
-        };
-
-        // Apply gradient colors
-        for (int i = 0; i < sortedEntries.size(); i++) {
-            renderer.setSeriesPaint(0, gradientColors[i % gradientColors.length]);
-        }
-
+        renderer.setSeriesPaint(0, new Color(0, 191, 255)); // DeepSkyBlue
         renderer.setDrawBarOutline(false);
         renderer.setShadowVisible(false);
 
@@ -97,8 +167,8 @@ public class KeywordFrequencyChart {
         chartPanel.setPreferredSize(new Dimension(900, 600));
         chartPanel.setMouseWheelEnabled(true);
 
-        JFrame frame = new JFrame("Keyword Frequency Chart");
-        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame = new JFrame("Keyword Frequency Chart");
+        frame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
         frame.setLayout(new BorderLayout());
         frame.add(chartPanel, BorderLayout.CENTER);
 
@@ -113,6 +183,14 @@ public class KeywordFrequencyChart {
         frame.getContentPane().setBackground(new Color(20, 20, 20));
         frame.pack();
         frame.setLocationRelativeTo(null);
-        frame.setVisible(true);
+
+        // Capped refresh rate; idle while the window is hidden
+        repaintTimer = new Timer(REPAINT_INTERVAL_MS, e -> applyUpdates());
+        frame.addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentHidden(java.awt.event.ComponentEvent e) {
+                repaintTimer.stop();
+            }
+        });
     }
 }
@@ -0,0 +1,73 @@
+package com.detextion.textanalysis;
+
+/**
+ * Counts keyed by a packed {@code long}, in open-addressing arrays — no boxing and no entry objects,
+ * for the millions of n-gram and pair increments a long document produces. Key 0 is reserved for
+ * empty slots, so callers pack their keys to be non-zero. Not thread-safe.
+ */
+final class LongIntMap {
+
+    private long[] keys = new long[1024];
+    private int[] values = new int[1024];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** Slots, occupied or not, for iterating with {@link #keyAt} and {@link #valueAt}. */
+    int capacity() {
+        return keys.length;
+    }
+
+    /** The key in {@code slot}, or 0 if it's empty. */
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    int valueAt(int slot) {
+        return values[slot];
+    }
+
+    void increment(long key) {
+        add(key, 1);
+    }
+
+    void add(long key, int amount) {
+        int slot = find(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            values[slot] = amount;
+            if (++size * 2 > keys.length) grow();
+            return;
+        }
+        values[slot] += amount;
+    }
+
+    /** Adds every count of {@code other} into this map. */
+    void addAll(LongIntMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != 0) add(other.keys[slot], other.values[slot]);
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            int slot = find(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
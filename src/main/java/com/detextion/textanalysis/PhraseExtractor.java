@@ -0,0 +1,180 @@
+package com.detextion.textanalysis;
+
+import java.util.*;
+
+/**
+ * Finds two- and three-word phrases ("neural network", "monte carlo method") that occur often
+ * enough, and together rather than by chance, to count as keywords.
+ *
+ * The text is tokenized once into a stream of term IDs. N-grams are counted over that stream with a
+ * rolling key — each ID is shifted into a 64-bit word, {@value #ID_BITS} bits per token — in an
+ * open-addressing long → int table, so no String is built for a candidate until it has survived
+ * pruning. Stopwords, short tokens and sentence punctuation break phrases.
+ *
+ * A candidate is kept when it occurs at least {@code minSupport} times and its normalized PMI —
+ * log(p(phrase) / Π p(word)) scaled so that words only ever seen together score 1 — reaches
+ * {@code minScore}. Frequent words that merely happen to be adjacent score near 0.
+ */
+public class PhraseExtractor {
+
+    public static final int DEFAULT_MIN_SUPPORT = 3;
+    public static final double DEFAULT_MIN_SCORE = 0.4;
+    public static final int MAX_N = 3;
+
+    private static final int ID_BITS = 21; // three IDs fit in one long; a document never has 2M distinct words
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    /** A phrase of {@code n} words with its count and collocation score. */
+    public record Phrase(String text, int n, int count, double score) {}
+
+    private final int minSupport;
+    private final double minScore;
+
+    public PhraseExtractor() {
+        this(DEFAULT_MIN_SUPPORT, DEFAULT_MIN_SCORE);
+    }
+
+    public PhraseExtractor(int minSupport, double minScore) {
+        if (minSupport < 1) throw new IllegalArgumentException("minSupport must be at least 1");
+        this.minSupport = minSupport;
+        this.minScore = minScore;
+    }
+
+    /** Accepted phrases, most frequent first. */
+    public List<Phrase> extract(String text) {
+        List<Phrase> phrases = accept(count(text), null);
+        phrases.sort(Comparator.comparingInt(Phrase::count).reversed().thenComparing(Phrase::text));
+        return phrases;
+    }
+
+    /**
+     * Term counts with accepted phrases folded in: the same single terms
+     * {@link TextInsights#countTerms} returns, plus each phrase, whose occurrences are taken off
+     * its words so that a phrase and its parts aren't counted twice.
+     */
+    public Map<String, Integer> keywordCounts(String text) {
+        Counts counts = count(text);
+        int[] remaining = Arrays.copyOf(counts.unigrams, counts.words.size());
+        Map<String, Integer> result = new HashMap<>();
+        for (Phrase p : accept(counts, remaining)) result.put(p.text(), p.count());
+        for (int id = 0; id < remaining.length; id++) {
+            String word = counts.words.get(id);
+            if (remaining[id] > 0 && TextInsights.isTerm(word)) result.put(word, remaining[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Prunes the candidates. Longer and more frequent ones go first and use up occurrences of their
+     * words; a later candidate only keeps the occurrences its words have left. That drops fragments
+     * of an accepted phrase ("monte carlo" inside "monte carlo method") and overlaps of two.
+     */
+    private List<Phrase> accept(Counts counts, int[] remaining) {
+        if (remaining == null) remaining = Arrays.copyOf(counts.unigrams, counts.words.size());
+        List<Phrase> accepted = new ArrayList<>();
+        for (int n = MAX_N; n >= 2; n--) {
+            LongIntMap grams = counts.grams[n];
+            List<Integer> candidates = new ArrayList<>();
+            for (int slot = 0; slot < grams.capacity(); slot++) {
+                long key = grams.keyAt(slot);
+                if (key != 0 && grams.valueAt(slot) >= minSupport && counts.score(key, n, grams.valueAt(slot)) >= minScore)
+                    candidates.add(slot);
+            }
+            candidates.sort(Comparator.comparingInt(grams::valueAt).reversed());
+
+            for (int slot : candidates) {
+                long key = grams.keyAt(slot);
+                int count = grams.valueAt(slot);
+                for (int i = 0; i < n; i++) count = Math.min(count, remaining[wordId(key, i)]);
+                if (count < minSupport) continue;
+                for (int i = 0; i < n; i++) remaining[wordId(key, i)] -= count;
+                accepted.add(new Phrase(counts.phrase(key, n), n, count, counts.score(key, n, grams.valueAt(slot))));
+            }
+        }
+        return accepted;
+    }
+
+    /** The ID of the {@code i}-th newest word packed into {@code key}. */
+    private static int wordId(long key, int i) {
+        return (int) ((key >>> (ID_BITS * i)) & ID_MASK) - 1;
+    }
+
+    // ===========================================================
+    // Counting
+    // ===========================================================
+
+    private static final class Counts {
+        final List<String> words = new ArrayList<>();
+        int[] unigrams = new int[1024];
+        long tokens;
+        final LongIntMap[] grams = { null, null, new LongIntMap(), new LongIntMap() };
+
+        /** Normalized PMI generalized to n words: 1 when the words only occur together. */
+        double score(long key, int n, int count) {
+            if (count <= 0) return -1;
+            double logPhrase = Math.log((double) count / tokens);
+            double logIndependent = 0;
+            for (int i = 0; i < n; i++) logIndependent += Math.log((double) unigrams[wordId(key, i)] / tokens);
+            return (logPhrase - logIndependent) / ((n - 1) * -logPhrase);
+        }
+
+        String phrase(long key, int n) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = n - 1; i >= 0; i--) {
+                if (!sb.isEmpty()) sb.append(' ');
+                sb.append(words.get(wordId(key, i)));
+            }
+            return sb.toString();
+        }
+    }
+
+    /** One pass over the text: term IDs, unigram counts and rolling bigram/trigram keys. */
+    private static Counts count(String text) {
+        Counts c = new Counts();
+        Map<String, Integer> ids = new HashMap<>();
+        long key = 0;   // last MAX_N phrase-word IDs (+1, so 0 means empty), newest in the low bits
+        int run = 0;    // phrase words since the last break
+        boolean broken = false;
+
+        int previousEnd = 0;
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+            for (int i = previousEnd; i < t.start() && !broken; i++) {
+                char ch = text.charAt(i);
+                broken = ch == '.' || ch == ',' || ch == ';' || ch == ':' || ch == '!' || ch == '?'
+                        || ch == '(' || ch == ')' || ch == '[' || ch == ']' || ch == '"';
+            }
+            previousEnd = t.end();
+            String word = t.term();
+
+            Integer boxed = ids.get(word);
+            int id;
+            if (boxed == null) {
+                id = c.words.size();
+                if (id > ID_MASK - 1) throw new IllegalStateException("Too many distinct words for phrase keys");
+                ids.put(word, id);
+                c.words.add(word);
+                if (id == c.unigrams.length) c.unigrams = Arrays.copyOf(c.unigrams, id * 2);
+            } else {
+                id = boxed;
+            }
+            c.unigrams[id]++;
+            c.tokens++;
+
+            if (broken || !isPhraseWord(word)) {
+                run = 0;
+                key = 0;
+                broken = false;
+                if (!isPhraseWord(word)) continue;
+            }
+            key = ((key << ID_BITS) | (id + 1)) & ((1L << MAX_N * ID_BITS) - 1);
+            run++;
+            for (int n = 2; n <= Math.min(run, MAX_N); n++)
+                c.grams[n].increment(key & ((1L << n * ID_BITS) - 1));
+        }
+        return c;
+    }
+
+    private static boolean isPhraseWord(String word) {
+        return word.length() >= 3 && !TextInsights.isStopWord(word) && !Character.isDigit(word.charAt(0));
+    }
+}
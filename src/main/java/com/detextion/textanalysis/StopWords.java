@@ -0,0 +1,76 @@
+package com.detextion.textanalysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Stopwords of one or more languages in a flat open-addressed table: one probe sequence over a
+ * {@code String[]} and the strings' cached hash codes, without the entry objects of a {@code HashSet}.
+ *
+ * Lists are read from {@code /stopwords/<language>.txt} on the classpath, one lower-case word per
+ * line, {@code #} starting a comment. Each language is read once and shared.
+ */
+final class StopWords {
+
+    private static final Map<String, List<String>> LOADED = new HashMap<>();
+
+    private final String[] table;
+    private final int mask;
+
+    private StopWords(Collection<String> words) {
+        int capacity = Integer.highestOneBit(Math.max(4, words.size() * 2) - 1) << 1; // at most half full
+        table = new String[capacity];
+        mask = capacity - 1;
+        for (String w : words) {
+            int slot = slot(w);
+            while (table[slot] != null && !table[slot].equals(w)) slot = (slot + 1) & mask;
+            table[slot] = w;
+        }
+    }
+
+    /** The union of the named languages' lists, e.g. {@code "en", "de"}. */
+    static StopWords of(Collection<String> languages) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String language : languages) words.addAll(list(language));
+        return new StopWords(words);
+    }
+
+    boolean contains(String word) {
+        for (int slot = slot(word); ; slot = (slot + 1) & mask) {
+            String entry = table[slot];
+            if (entry == null) return false;
+            if (entry.equals(word)) return true;
+        }
+    }
+
+    private int slot(String word) {
+        int h = word.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static synchronized List<String> list(String language) {
+        List<String> words = LOADED.get(language);
+        if (words != null) return words;
+
+        InputStream in = StopWords.class.getResourceAsStream("/stopwords/" + language + ".txt");
+        if (in == null) throw new IllegalArgumentException("No stopword list for language: " + language);
+        words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                int comment = line.indexOf('#');
+                String word = (comment < 0 ? line : line.substring(0, comment)).strip();
+                if (!word.isEmpty()) words.add(word);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        words = List.copyOf(words);
+        LOADED.put(language, words);
+        return words;
+    }
+}
@@ -1,16 +1,13 @@
 package com.detextion.textanalysis;
 
 import java.util.*;
-import java.util.regex.*;
 
 public class TextAnalyzer {
     public static List<String> extractKeywords(String text) {
         Set<String> stopWords = Set.of("the", "and", "to", "is", "in", "on", "at", "a");
         Map<String, Integer> freqMap = new HashMap<>();
-        Pattern wordPattern = Pattern.compile("\\b\\w+\\b");
-        Matcher matcher = wordPattern.matcher(text);
-        while (matcher.find()) {
-            String word = matcher.group().toLowerCase();
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+            String word = t.term();
             if (!stopWords.contains(word)) {
                 freqMap.put(word, freqMap.getOrDefault(word, 0) + 1);
             }
@@ -0,0 +1,220 @@
+package com.detextion.textanalysis;
+
+import com.detextion.diagnostics.PerfEvents;
+import com.detextion.services.AnalysisTasks;
+import com.detextion.storage.TokenStore;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The text analysis behind the main window: per-document keyword counts, extractive summaries and
+ * keyword clustering. Pure functions of their input, so they can run on any thread.
+ */
+public final class TextInsights {
+
+    public static final int KEYWORDS_PER_DOCUMENT = 15;
+
+    static final AnalysisTasks.Progress NO_PROGRESS = new AnalysisTasks.Progress() {
+        @Override
+        public void update(long done, long total) {}
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    private TextInsights() {}
+
+    /** The document's top keywords with their counts, most frequent first. */
+    public static Map<String, Integer> keywordFrequency(String text) {
+        return keywordFrequency(text, false);
+    }
+
+    /**
+     * Like {@link #keywordFrequency(String)}; with {@code phrases}, recurring two- and three-word
+     * phrases found by {@link PhraseExtractor} compete for the top spots alongside single words.
+     */
+    public static Map<String, Integer> keywordFrequency(String text, boolean phrases) {
+        Map<String, Integer> terms = phrases ? new PhraseExtractor().keywordCounts(text) : countTerms(text);
+        PerfEvents.KeywordCount event = new PerfEvents.KeywordCount();
+        event.begin();
+        Map<String, Integer> top = topKeywords(terms, KEYWORDS_PER_DOCUMENT);
+        event.terms = terms.size();
+        event.keywords = top.size();
+        event.commit();
+        return top;
+    }
+
+    /**
+     * The {@code k} most frequent terms with their counts, most frequent first; equal counts keep
+     * {@code counts}' iteration order. Every ranking of a document's keywords goes through here, so
+     * the graph, the document store and the analysis service agree on them.
+     */
+    public static Map<String, Integer> topKeywords(Map<String, Integer> counts, int k) {
+        Map<String, Integer> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(k)
+                .forEach(e -> top.put(e.getKey(), e.getValue()));
+        return top;
+    }
+
+    /**
+     * {@link #keywordFrequency(String)} of a document held in a {@link TokenStore}, counted over its
+     * term IDs without rebuilding the text or a {@code String} per word. Work and memory follow the
+     * document's own tokens and distinct terms, not the store's vocabulary.
+     */
+    public static Map<String, Integer> keywordFrequency(TokenStore store, int doc) {
+        PerfEvents.KeywordCount event = new PerfEvents.KeywordCount();
+        event.begin();
+        LongIntMap counts = new LongIntMap();
+        store.forEachToken(doc, id -> counts.increment(id + 1L)); // key 0 marks an empty slot
+
+        // Min-heap of the best (count, id) pairs so far, packed so that higher counts and, on a tie,
+        // lower IDs compare greater
+        long[] heap = new long[KEYWORDS_PER_DOCUMENT];
+        int size = 0, terms = 0;
+        for (int slot = 0; slot < counts.capacity(); slot++) {
+            long key = counts.keyAt(slot);
+            if (key == 0) continue;
+            int id = (int) (key - 1);
+            if (!isTerm(store.term(id))) continue;
+            terms++;
+            long packed = (long) counts.valueAt(slot) << 32 | (Integer.MAX_VALUE - id);
+            if (size < heap.length) {
+                heap[size] = packed;
+                siftUp(heap, size++);
+            } else if (packed > heap[0]) {
+                heap[0] = packed;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (int i = size - 1; i >= 0; i--)
+            top.put(store.term(Integer.MAX_VALUE - (int) heap[i]), (int) (heap[i] >>> 32));
+        event.terms = terms;
+        event.keywords = top.size();
+        event.commit();
+        return top;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) return;
+            long t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        for (int i = 0; ; ) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[i] <= heap[child]) return;
+            long t = heap[child]; heap[child] = heap[i]; heap[i] = t;
+            i = child;
+        }
+    }
+
+    /** Whether a lower-cased token counts as a term under {@link Tokenizer#DEFAULT}. */
+    static boolean isTerm(String word) {
+        return Tokenizer.DEFAULT.isTerm(word);
+    }
+
+    static boolean isStopWord(String word) {
+        return Tokenizer.DEFAULT.isStopWord(word);
+    }
+
+    /** Full term-frequency table of a text (every term, not just the top keywords). */
+    public static Map<String, Integer> countTerms(String text) {
+        PerfEvents.Tokenization event = new PerfEvents.Tokenization();
+        event.begin();
+        Map<String, Integer> freq = new HashMap<>();
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+            String w = t.term();
+            if (isTerm(w)) freq.put(w, freq.getOrDefault(w, 0) + 1);
+        }
+        event.characters = text.length();
+        event.terms = freq.size();
+        event.commit();
+        return freq;
+    }
+
+    public static String summarize(String text) {
+        return summarize(text, NO_PROGRESS);
+    }
+
+    /** The three sentences whose words are most frequent across the text. */
+    public static String summarize(String text, AnalysisTasks.Progress progress) {
+        String[] sentences = text.split("(?<=[.!?])\\s+|(?<=[。！？])");
+        if (sentences.length <= 3) return text;
+
+        Map<String, Integer> freq = new HashMap<>();
+        for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+            String w = t.term();
+            if (w.length() < 4 && !Tokenizer.isUnspaced(w.codePointAt(0))) continue;
+            freq.put(w, freq.getOrDefault(w, 0) + 1);
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < sentences.length; i++) {
+            if (i % 1000 == 0) {
+                if (progress.isCancelled()) return "";
+                progress.update(sentences.length + i, sentences.length * 2L);
+            }
+            String s = sentences[i];
+            double score = 0;
+            for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(s); t.next(); )
+                score += freq.getOrDefault(t.term(), 0);
+            scores.put(s, score);
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(3)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.joining(" "));
+    }
+
+    public static Map<String, List<String>> clusterKeywords(List<String> words) {
+        return clusterKeywords(words, NO_PROGRESS);
+    }
+
+    /** Groups each word under the first earlier word it {@linkplain #areSimilar resembles}. */
+    public static Map<String, List<String>> clusterKeywords(List<String> words, AnalysisTasks.Progress progress) {
+        Map<String, List<String>> clusters = new LinkedHashMap<>();
+
+        for (int i = 0; i < words.size(); i++) {
+            if (progress.isCancelled()) return clusters;
+            progress.update(i, words.size());
+            String word = words.get(i);
+            boolean added = false;
+            for (String key : clusters.keySet()) {
+                if (areSimilar(word, key)) {
+                    clusters.get(key).add(word);
+                    added = true;
+                    break;
+                }
+            }
+            if (!added) clusters.put(word, new ArrayList<>(List.of(word)));
+        }
+        return clusters;
+    }
+
+    /** Similar length and a common prefix covering at least half the shorter word. */
+    public static boolean areSimilar(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 3) return false;
+        int commonPrefix = 0;
+        for (int i = 0; i < Math.min(a.length(), b.length()); i++) {
+            if (a.charAt(i) == b.charAt(i)) commonPrefix++;
+            else break;
+        }
+        return (commonPrefix >= Math.min(a.length(), b.length()) / 2);
+    }
+}
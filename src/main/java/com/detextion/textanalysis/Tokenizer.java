@@ -0,0 +1,241 @@
+package com.detextion.textanalysis;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Splits text into lower-cased words for every analysis in the app, in any script.
+ *
+ * A word is a run of letters, digits, combining marks and connector punctuation ({@code _}), so
+ * "Straße", "élève" and "naïve" stay whole. Plain ASCII runs take a table-driven fast path that
+ * lower-cases without a locale lookup; anything else is NFC-normalized when it carries combining
+ * marks and lower-cased with the tokenizer's locale. Scripts written without spaces between words
+ * (Han, Hiragana, Katakana, Thai, Lao, Khmer, Myanmar) have no word boundaries to find, so each run
+ * of them comes out as overlapping two-character bigrams: "自然言語" → 自然, 然言, 言語.
+ *
+ * {@link #DEFAULT} reads its locale from {@code detextion.locale} (a language tag, e.g. {@code tr})
+ * and its stopword languages from {@code detextion.stopwords} (default {@code en}). Lists are only
+ * unioned on request: one language's stopwords are often another's words, such as German "dies",
+ * French "sans" or Spanish "ante" in English text.
+ */
+public final class Tokenizer {
+
+    public static final Tokenizer DEFAULT = of(
+            Locale.forLanguageTag(System.getProperty("detextion.locale", "und")),
+            System.getProperty("detextion.stopwords", "en").split("\\s*,\\s*"));
+
+    // 0 = not a word character, 1 = lower-case letter, digit or '_', 2 = upper-case letter
+    private static final byte[] ASCII = new byte[128];
+    static {
+        for (char c = 'a'; c <= 'z'; c++) ASCII[c] = 1;
+        for (char c = '0'; c <= '9'; c++) ASCII[c] = 1;
+        for (char c = 'A'; c <= 'Z'; c++) ASCII[c] = 2;
+        ASCII['_'] = 1;
+    }
+
+    private final Locale locale;
+    private final StopWords stopWords;
+    private final boolean asciiLowerCase; // whether 'A'..'Z' lower-case to 'a'..'z' in this locale
+
+    private Tokenizer(Locale locale, StopWords stopWords) {
+        this.locale = locale;
+        this.stopWords = stopWords;
+        String language = locale.getLanguage();
+        this.asciiLowerCase = !language.equals("tr") && !language.equals("az"); // dotless ı
+    }
+
+    /** A tokenizer lower-casing with {@code locale} and using the stopwords of the given languages. */
+    public static Tokenizer of(Locale locale, String... stopwordLanguages) {
+        return new Tokenizer(locale, StopWords.of(Arrays.asList(stopwordLanguages)));
+    }
+
+    public Locale locale() {
+        return locale;
+    }
+
+    /** A cursor over the words of {@code text}; call {@link Cursor#next()} before reading the first. */
+    public Cursor tokens(CharSequence text) {
+        return new Cursor(text);
+    }
+
+    /** Every lower-cased word of {@code text}, in order. */
+    public List<String> words(CharSequence text) {
+        List<String> words = new ArrayList<>();
+        for (Cursor t = tokens(text); t.next(); ) words.add(t.term());
+        return words;
+    }
+
+    public boolean isStopWord(String word) {
+        return stopWords.contains(word);
+    }
+
+    /**
+     * Whether a lower-cased word counts as a term: not a stopword, and longer than three characters
+     * — or, for scripts without spaces, a bigram.
+     */
+    public boolean isTerm(String word) {
+        int length = word.length();
+        if (length == 0) return false;
+        if (length <= 3 && (!isUnspaced(word.codePointAt(0)) || word.codePointCount(0, length) < 2)) return false;
+        return !stopWords.contains(word);
+    }
+
+    /** Whether {@code cp} belongs to a script written without spaces between words. */
+    public static boolean isUnspaced(int cp) {
+        if (cp < 0x0E00) return false; // below Thai: Latin, Greek, Cyrillic, Arabic, Indic, ...
+        return switch (Character.UnicodeScript.of(cp)) {
+            case HAN, HIRAGANA, KATAKANA, THAI, LAO, KHMER, MYANMAR -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isWordCodePoint(int cp) {
+        if (cp < 0x80) return ASCII[cp] != 0;
+        return switch (Character.getType(cp)) {
+            case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER, Character.TITLECASE_LETTER,
+                 Character.MODIFIER_LETTER, Character.OTHER_LETTER, Character.DECIMAL_DIGIT_NUMBER,
+                 Character.NON_SPACING_MARK, Character.COMBINING_SPACING_MARK, Character.ENCLOSING_MARK,
+                 Character.CONNECTOR_PUNCTUATION -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isMark(int cp) {
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    /** Whether {@code cp} may sit inside a run of an unspaced script, such as the Japanese long-vowel mark. */
+    private static boolean continuesRun(int cp) {
+        if (cp < 0x80) return false;
+        if (isUnspaced(cp)) return true;
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return (script == Character.UnicodeScript.COMMON || script == Character.UnicodeScript.INHERITED)
+                && isWordCodePoint(cp);
+    }
+
+    /**
+     * Walks the words of one text. Not thread-safe; {@link #start()}, {@link #end()} and
+     * {@link #term()} describe the word the last successful {@link #next()} moved to.
+     */
+    public final class Cursor {
+        private final CharSequence text;
+        private final int length;
+        private int pos;      // where scanning resumes
+        private int runEnd;   // end of the unspaced run being cut into bigrams
+        private int start, end;
+        private boolean ascii, upper, marks;
+
+        private Cursor(CharSequence text) {
+            this.text = text;
+            this.length = text.length();
+        }
+
+        /** Moves to the next word; false at the end of the text. */
+        public boolean next() {
+            if (pos < runEnd) return bigram(pos);
+            while (pos < length) {
+                char ch = text.charAt(pos);
+                if (ch < 0x80) {
+                    if (ASCII[ch] != 0) return word(pos);
+                    pos++;
+                    continue;
+                }
+                int cp = Character.codePointAt(text, pos);
+                if (isUnspaced(cp)) return run(pos);
+                if (isWordCodePoint(cp)) return word(pos);
+                pos += Character.charCount(cp);
+            }
+            return false;
+        }
+
+        private boolean word(int from) {
+            int i = from, flags = 0;
+            for (; i < length; i++) {
+                char ch = text.charAt(i);
+                if (ch >= 0x80 || ASCII[ch] == 0) break;
+                flags |= ASCII[ch];
+            }
+            upper = (flags & 2) != 0;
+            marks = false;
+            int asciiEnd = i;
+            while (i < length && text.charAt(i) >= 0x80) { // the word goes on past ASCII
+                int cp = Character.codePointAt(text, i);
+                if (!isWordCodePoint(cp) || isUnspaced(cp)) break;
+                marks |= isMark(cp);
+                i += Character.charCount(cp);
+                while (i < length && text.charAt(i) < 0x80 && ASCII[text.charAt(i)] != 0) i++;
+            }
+            ascii = i == asciiEnd;
+            start = from;
+            end = pos = i;
+            return true;
+        }
+
+        private boolean run(int from) {
+            int i = from;
+            while (i < length) {
+                int cp = Character.codePointAt(text, i);
+                if (!continuesRun(cp)) break;
+                i += Character.charCount(cp);
+            }
+            runEnd = i;
+            return bigram(from);
+        }
+
+        /** The bigram starting at {@code from}, or a lone character ending the run. */
+        private boolean bigram(int from) {
+            int second = clusterEnd(from);
+            start = from;
+            end = second < runEnd ? clusterEnd(second) : runEnd;
+            pos = end == runEnd ? runEnd : second;
+            ascii = upper = false;
+            marks = true;
+            return true;
+        }
+
+        /** End of the character at {@code i} together with any combining marks on it. */
+        private int clusterEnd(int i) {
+            i += Character.charCount(Character.codePointAt(text, i));
+            while (i < runEnd) {
+                int cp = Character.codePointAt(text, i);
+                if (!isMark(cp)) break;
+                i += Character.charCount(cp);
+            }
+            return i;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        /**
+         * Whether the word is plain ASCII that lower-cases letter by letter, 'A'..'Z' to 'a'..'z' —
+         * what callers hashing the word in place, without {@link #term()}, may rely on.
+         */
+        public boolean isAscii() {
+            return ascii && (asciiLowerCase || !upper);
+        }
+
+        /** The word, normalized and lower-cased. */
+        public String term() {
+            String word = text.subSequence(start, end).toString();
+            if (ascii) {
+                if (!upper) return word;
+                if (asciiLowerCase) {
+                    char[] chars = word.toCharArray();
+                    for (int i = 0; i < chars.length; i++)
+                        if (chars[i] >= 'A' && chars[i] <= 'Z') chars[i] += 'a' - 'A';
+                    return new String(chars);
+                }
+            }
+            if (marks) word = Normalizer.normalize(word, Normalizer.Form.NFC);
+            return word.toLowerCase(locale);
+        }
+    }
+}
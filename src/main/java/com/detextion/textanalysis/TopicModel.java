@@ -0,0 +1,343 @@
+package com.detextion.textanalysis;
+
+import com.detextion.services.AnalysisTasks;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Latent Dirichlet allocation over the loaded documents, fitted by collapsed Gibbs sampling.
+ *
+ * Documents are tokenized into term IDs over a pruned vocabulary (the most frequent terms). Each
+ * sweep follows AD-LDA: the documents are split into one partition per thread, every thread samples
+ * its partition against a private copy of the word–topic counts, and the copies' changes are added
+ * back into the shared counts when all threads finish. The per-token sampler iterates one contiguous
+ * row of word–topic counts against a cached per-document coefficient, so a draw is K multiply-adds
+ * and no divisions.
+ *
+ * The result is each document's topic mixture and each topic's top words, ranked by a blend of
+ * their probability in the topic and their lift over the whole corpus.
+ */
+public final class TopicModel {
+
+    public static final int DEFAULT_TOPICS = 20;
+    public static final int DEFAULT_ITERATIONS = 200;
+    public static final int DEFAULT_VOCABULARY = 20_000;
+    public static final int TOP_WORDS = 10;
+
+    // Weight of plain probability against lift when ranking a topic's words (Sievert & Shirley's λ)
+    private static final double RELEVANCE_LAMBDA = 0.6;
+
+    /** Supplies a document's text; called once per document on the fitting thread. */
+    @FunctionalInterface
+    public interface TextSource {
+        String text(String document) throws IOException;
+    }
+
+    /**
+     * @param alpha      document–topic smoothing; 50 / topics is the usual choice
+     * @param beta       topic–word smoothing
+     * @param vocabulary most frequent terms kept; rarer ones are dropped from the token stream
+     * @param threads    partitions sampled in parallel per sweep
+     */
+    public record Options(int topics, int iterations, double alpha, double beta, int vocabulary, int threads, long seed) {
+        public Options {
+            if (topics < 2) throw new IllegalArgumentException("topics must be at least 2");
+            if (iterations < 1) throw new IllegalArgumentException("iterations must be at least 1");
+            if (alpha <= 0 || beta <= 0) throw new IllegalArgumentException("alpha and beta must be positive");
+            if (threads < 1) throw new IllegalArgumentException("threads must be at least 1");
+        }
+
+        public static Options defaults(int topics) {
+            return new Options(topics, DEFAULT_ITERATIONS, 50.0 / topics, 0.01, DEFAULT_VOCABULARY,
+                    Runtime.getRuntime().availableProcessors(), 42);
+        }
+    }
+
+    /** A word and its probability within the topic. */
+    public record TopicWord(String word, double probability) {}
+
+    public record Topic(int id, List<TopicWord> words) {
+        /** The top three words, for legends and node colors. */
+        public String label() {
+            return String.join(" · ", words.stream().limit(3).map(TopicWord::word).toList());
+        }
+    }
+
+    private final List<Topic> topics;
+    private final Map<String, double[]> mixtures;
+
+    private TopicModel(List<Topic> topics, Map<String, double[]> mixtures) {
+        this.topics = topics;
+        this.mixtures = mixtures;
+    }
+
+    public List<Topic> topics() {
+        return topics;
+    }
+
+    public Set<String> documents() {
+        return mixtures.keySet();
+    }
+
+    /** The document's topic proportions, summing to 1; null for a document that wasn't modelled. */
+    public double[] mixture(String document) {
+        double[] theta = mixtures.get(document);
+        return theta == null ? null : theta.clone();
+    }
+
+    /** The document's most prominent topic, or -1 if it wasn't modelled. */
+    public int dominantTopic(String document) {
+        double[] theta = mixtures.get(document);
+        if (theta == null) return -1;
+        int best = 0;
+        for (int k = 1; k < theta.length; k++) if (theta[k] > theta[best]) best = k;
+        return best;
+    }
+
+    /** Bhattacharyya coefficient of two mixtures: 1 for the same topics in the same proportions, 0 for none shared. */
+    public static double similarity(double[] a, double[] b) {
+        double sum = 0;
+        for (int k = 0; k < a.length; k++) sum += Math.sqrt(a[k] * b[k]);
+        return sum;
+    }
+
+    // ===========================================================
+    // Fitting
+    // ===========================================================
+
+    public static TopicModel fit(List<String> documents, TextSource source, Options options) throws IOException {
+        return fit(documents, source, options, TextInsights.NO_PROGRESS);
+    }
+
+    /** Fits the model; when cancelled it returns what the sweeps so far have sampled. */
+    public static TopicModel fit(List<String> documents, TextSource source, Options options,
+                                 AnalysisTasks.Progress progress) throws IOException {
+        long steps = documents.size() + (long) options.iterations();
+        Corpus corpus = Corpus.read(documents, source, options.vocabulary(), progress, steps);
+        Sampler sampler = new Sampler(corpus, options);
+        for (int it = 0; it < options.iterations() && !progress.isCancelled(); it++) {
+            sampler.sweep(it);
+            progress.update(documents.size() + it + 1L, steps);
+        }
+        return sampler.model(documents);
+    }
+
+    /** Documents as term-ID arrays over the kept vocabulary. */
+    private record Corpus(String[] vocabulary, int[][] docs) {
+
+        static Corpus read(List<String> documents, TextSource source, int vocabularySize,
+                           AnalysisTasks.Progress progress, long steps) throws IOException {
+            Map<String, Integer> ids = new HashMap<>();
+            List<String> words = new ArrayList<>();
+            int[] counts = new int[1024];
+            int[][] raw = new int[documents.size()][];
+
+            for (int d = 0; d < documents.size(); d++) {
+                if (progress.isCancelled()) {
+                    Arrays.fill(raw, d, raw.length, new int[0]);
+                    break;
+                }
+                String text = source.text(documents.get(d));
+                int[] tokens = new int[Math.max(16, text.length() / 6)];
+                int n = 0;
+                for (Tokenizer.Cursor t = Tokenizer.DEFAULT.tokens(text); t.next(); ) {
+                    String word = t.term();
+                    if (!TextInsights.isTerm(word)) continue;
+
+                    Integer id = ids.get(word);
+                    if (id == null) {
+                        id = words.size();
+                        ids.put(word, id);
+                        words.add(word);
+                        if (id == counts.length) counts = Arrays.copyOf(counts, id * 2);
+                    }
+                    counts[id]++;
+                    if (n == tokens.length) tokens = Arrays.copyOf(tokens, n * 2);
+                    tokens[n++] = id;
+                }
+                raw[d] = Arrays.copyOf(tokens, n);
+                progress.update(d + 1, steps);
+            }
+
+            // Keep the most frequent terms (seen at least twice) and renumber them densely
+            int[] finalCounts = counts;
+            int[] kept = IntStream.range(0, words.size())
+                    .filter(id -> finalCounts[id] >= 2)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingInt(id -> finalCounts[id]).reversed())
+                    .limit(vocabularySize)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] remap = new int[words.size()];
+            Arrays.fill(remap, -1);
+            String[] vocabulary = new String[kept.length];
+            for (int v = 0; v < kept.length; v++) {
+                remap[kept[v]] = v;
+                vocabulary[v] = words.get(kept[v]);
+            }
+
+            int[][] docs = new int[raw.length][];
+            for (int d = 0; d < raw.length; d++) {
+                docs[d] = Arrays.stream(raw[d]).map(id -> remap[id]).filter(v -> v >= 0).toArray();
+            }
+            return new Corpus(vocabulary, docs);
+        }
+    }
+
+    private static final class Sampler {
+        final Corpus corpus;
+        final int K, V;
+        final double alpha, beta, vBeta;
+        final long seed;
+
+        final int[][] z;           // topic of every token
+        final int[][] docTopic;    // per document: count of tokens per topic
+        int[] wordTopic;           // V × K, row per word
+        int[] topicTotal;          // K
+        final int[][] partitions;  // document indices per thread
+
+        Sampler(Corpus corpus, Options options) {
+            this.corpus = corpus;
+            this.K = options.topics();
+            this.V = corpus.vocabulary().length;
+            this.alpha = options.alpha();
+            this.beta = options.beta();
+            this.vBeta = V * beta;
+            this.seed = options.seed();
+
+            int D = corpus.docs().length;
+            z = new int[D][];
+            docTopic = new int[D][K];
+            wordTopic = new int[V * K];
+            topicTotal = new int[K];
+
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int d = 0; d < D; d++) {
+                int[] doc = corpus.docs()[d];
+                z[d] = new int[doc.length];
+                for (int i = 0; i < doc.length; i++) {
+                    int k = random.nextInt(K);
+                    z[d][i] = k;
+                    docTopic[d][k]++;
+                    wordTopic[doc[i] * K + k]++;
+                    topicTotal[k]++;
+                }
+            }
+            partitions = partition(corpus.docs(), Math.min(options.threads(), Math.max(1, D)));
+        }
+
+        /** Deals documents, longest first, to the partition with the fewest tokens so far. */
+        private static int[][] partition(int[][] docs, int parts) {
+            Integer[] order = IntStream.range(0, docs.length).boxed().toArray(Integer[]::new);
+            Arrays.sort(order, Comparator.comparingInt((Integer d) -> docs[d].length).reversed());
+            List<List<Integer>> lists = new ArrayList<>();
+            long[] load = new long[parts];
+            for (int p = 0; p < parts; p++) lists.add(new ArrayList<>());
+            for (int d : order) {
+                int lightest = 0;
+                for (int p = 1; p < parts; p++) if (load[p] < load[lightest]) lightest = p;
+                lists.get(lightest).add(d);
+                load[lightest] += docs[d].length;
+            }
+            return lists.stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+        }
+
+        /** One AD-LDA sweep: partitions sample against private copies, then their changes are merged. */
+        void sweep(int iteration) {
+            int[] snapshotWords = wordTopic;
+            int[] snapshotTotals = topicTotal;
+            List<int[][]> locals = IntStream.range(0, partitions.length).parallel()
+                    .mapToObj(p -> {
+                        int[] words = snapshotWords.clone();
+                        int[] totals = snapshotTotals.clone();
+                        SplittableRandom random = new SplittableRandom(seed * 31 + iteration * 1_000_003L + p);
+                        for (int d : partitions[p]) sampleDocument(d, words, totals, random);
+                        return new int[][] { words, totals };
+                    })
+                    .toList();
+
+            int[] mergedWords = snapshotWords.clone();
+            int[] mergedTotals = snapshotTotals.clone();
+            for (int[][] local : locals) {
+                int[] words = local[0];
+                for (int i = 0; i < words.length; i++) mergedWords[i] += words[i] - snapshotWords[i];
+                for (int k = 0; k < K; k++) mergedTotals[k] += local[1][k] - snapshotTotals[k];
+            }
+            wordTopic = mergedWords;
+            topicTotal = mergedTotals;
+        }
+
+        private void sampleDocument(int d, int[] words, int[] totals, SplittableRandom random) {
+            int[] doc = corpus.docs()[d];
+            int[] topics = z[d];
+            int[] counts = docTopic[d];
+            double[] coefficient = new double[K]; // (n_dk + α) / (n_k + Vβ)
+            for (int k = 0; k < K; k++) coefficient[k] = (counts[k] + alpha) / (totals[k] + vBeta);
+            double[] cumulative = new double[K];
+
+            for (int i = 0; i < doc.length; i++) {
+                int w = doc[i];
+                int row = w * K;
+                int old = topics[i];
+                counts[old]--;
+                words[row + old]--;
+                totals[old]--;
+                coefficient[old] = (counts[old] + alpha) / (totals[old] + vBeta);
+
+                double sum = 0;
+                for (int k = 0; k < K; k++) {
+                    sum += coefficient[k] * (words[row + k] + beta);
+                    cumulative[k] = sum;
+                }
+                double u = random.nextDouble() * sum;
+                int k = 0;
+                while (k < K - 1 && cumulative[k] <= u) k++;
+
+                topics[i] = k;
+                counts[k]++;
+                words[row + k]++;
+                totals[k]++;
+                coefficient[k] = (counts[k] + alpha) / (totals[k] + vBeta);
+            }
+        }
+
+        TopicModel model(List<String> documents) {
+            // Corpus-wide word frequency, so words common to every topic don't head every list
+            long tokens = 0;
+            double[] overall = new double[V];
+            for (int w = 0; w < V; w++) {
+                for (int k = 0; k < K; k++) overall[w] += wordTopic[w * K + k];
+                tokens += (long) overall[w];
+            }
+            for (int w = 0; w < V; w++) overall[w] = (overall[w] + beta) / (tokens + vBeta);
+
+            List<Topic> topics = new ArrayList<>(K);
+            for (int k = 0; k < K; k++) {
+                double[] phi = new double[V];
+                double[] relevance = new double[V];
+                for (int w = 0; w < V; w++) {
+                    phi[w] = (wordTopic[w * K + k] + beta) / (topicTotal[k] + vBeta);
+                    relevance[w] = RELEVANCE_LAMBDA * Math.log(phi[w])
+                            + (1 - RELEVANCE_LAMBDA) * Math.log(phi[w] / overall[w]);
+                }
+                List<TopicWord> top = IntStream.range(0, V).boxed()
+                        .sorted(Comparator.<Integer>comparingDouble(w -> relevance[w]).reversed())
+                        .limit(TOP_WORDS)
+                        .map(w -> new TopicWord(corpus.vocabulary()[w], phi[w]))
+                        .toList();
+                topics.add(new Topic(k, top));
+            }
+
+            Map<String, double[]> mixtures = new LinkedHashMap<>();
+            for (int d = 0; d < documents.size(); d++) {
+                double[] theta = new double[K];
+                double denominator = corpus.docs()[d].length + K * alpha;
+                for (int k = 0; k < K; k++) theta[k] = (docTopic[d][k] + alpha) / denominator;
+                mixtures.put(documents.get(d), theta);
+            }
+            return new TopicModel(topics, mixtures);
+        }
+    }
+}
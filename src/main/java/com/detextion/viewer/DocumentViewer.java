@@ -0,0 +1,250 @@
+package com.detextion.viewer;
+
+import com.detextion.diagnostics.PerfStats;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.text.Text;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only, virtualized view of the loaded documents: one row per document header and one per page.
+ *
+ * Only the rows on screen get a cell, and a page's text is fetched through the {@link PageLoader}
+ * when its cell first shows it, so the cost of scrolling doesn't depend on how much text is loaded.
+ * A document → first-row offset table makes jumping to any document or page a constant-time lookup.
+ * Searching reads every page, so it runs on a worker thread and only selects its result back here.
+ */
+public final class DocumentViewer extends ListView<DocumentViewer.Row> {
+
+    /** A row: the header of {@code doc} when {@code page} is -1, otherwise that page. */
+    public record Row(int doc, int page) {
+        public boolean isHeader() {
+            return page < 0;
+        }
+    }
+
+    /** Fetches the text of one page on demand. */
+    @FunctionalInterface
+    public interface PageLoader {
+        String load(String document, int page) throws IOException;
+    }
+
+    /** Outcome of {@link #search}: occurrences over every page, and the next page row holding one (-1 if none). */
+    public record SearchResult(int count, int nextRow, int version) {}
+
+    private static final int CACHE_CHARS = 4_000_000;
+
+    private final ObservableList<Row> rows = FXCollections.observableArrayList();
+    private final List<String> documents = new ArrayList<>();
+    private final Map<String, Integer> docIndex = new HashMap<>();
+    private int[] firstRow = new int[64];
+    private int[] pageCounts = new int[64];
+
+    private PageLoader loader = (doc, page) -> "";
+    private final Map<Row, String> pageCache = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedChars;
+    private volatile int version; // bumped whenever rows or page text change, so stale searches stop
+    private final PerfStats.CacheCounter cacheStats = PerfStats.cache("pages");
+
+    public DocumentViewer() {
+        setItems(rows);
+        setCellFactory(list -> new PageCell());
+        getStyleClass().add("document-viewer");
+    }
+
+    public void setPageLoader(PageLoader loader) {
+        this.loader = loader;
+        pageCache.clear();
+        cachedChars = 0;
+        version++;
+        refresh();
+    }
+
+    /** Appends a document; its pages are only read once they are scrolled into view. */
+    public void addDocument(String name, int pageCount) {
+        int doc = documents.size();
+        if (doc == firstRow.length) {
+            firstRow = Arrays.copyOf(firstRow, doc * 2);
+            pageCounts = Arrays.copyOf(pageCounts, doc * 2);
+        }
+        documents.add(name);
+        docIndex.putIfAbsent(name, doc);
+        firstRow[doc] = rows.size();
+        pageCounts[doc] = pageCount;
+
+        version++;
+        List<Row> added = new ArrayList<>(pageCount + 1);
+        added.add(new Row(doc, -1));
+        for (int p = 0; p < pageCount; p++) added.add(new Row(doc, p));
+        rows.addAll(added);
+    }
+
+    public void clear() {
+        rows.clear();
+        documents.clear();
+        docIndex.clear();
+        pageCache.clear();
+        cachedChars = 0;
+        version++;
+    }
+
+    public List<String> documentNames() {
+        return Collections.unmodifiableList(documents);
+    }
+
+    /** Number of pages of a loaded document, 0 if it isn't loaded. */
+    public int pageCount(String name) {
+        Integer doc = docIndex.get(name);
+        return doc == null ? 0 : pageCounts[doc];
+    }
+
+    public boolean isEmpty() {
+        return documents.isEmpty();
+    }
+
+    /** Scrolls to and selects the document's header row. Returns false if it isn't loaded. */
+    public boolean showDocument(String name) {
+        return showPage(name, -1);
+    }
+
+    public boolean showPage(String name, int page) {
+        Integer doc = docIndex.get(name);
+        if (doc == null || page >= pageCounts[doc]) return false;
+        int row = firstRow[doc] + 1 + page;
+        scrollTo(row);
+        getSelectionModel().clearAndSelect(row);
+        return true;
+    }
+
+    /** Name of the document the selected row belongs to, or null. */
+    public String selectedDocument() {
+        Row row = getSelectionModel().getSelectedItem();
+        return row == null ? null : documents.get(row.doc());
+    }
+
+    /** Text of the selected page, or of the whole document when a header is selected. */
+    public String selectedText() {
+        Row row = getSelectionModel().getSelectedItem();
+        if (row == null) return "";
+        return row.isHeader() ? documentText(documents.get(row.doc())) : pageText(row);
+    }
+
+    public String documentText(String name) {
+        Integer doc = docIndex.get(name);
+        if (doc == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int p = 0; p < pageCounts[doc]; p++) sb.append(load(doc, p));
+        return sb.toString();
+    }
+
+    /**
+     * Counts {@code keyword} case-insensitively over every page and finds the next page after the
+     * selection that contains it, wrapping around. Pages still in the cache aren't read again; the
+     * rest come from {@code source} on a worker thread, so it must not touch FX-thread state.
+     * Hand the result to {@link #select(SearchResult)} back on the FX thread.
+     */
+    public CompletableFuture<SearchResult> search(String keyword, PageLoader source) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        int searched = version;
+        int docCount = documents.size();
+        List<String> names = List.copyOf(documents);
+        int[] first = Arrays.copyOf(firstRow, docCount);
+        int[] pages = Arrays.copyOf(pageCounts, docCount);
+        Map<Row, String> cached = new HashMap<>(pageCache);
+        int selected = getSelectionModel().getSelectedIndex();
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (needle.isEmpty()) return new SearchResult(0, -1, searched);
+            int count = 0, nextRow = -1, wrappedRow = -1;
+            for (int d = 0; d < docCount && version == searched; d++) {
+                for (int p = 0; p < pages[d]; p++) {
+                    String text = cached.get(new Row(d, p));
+                    if (text == null) text = load(source, names.get(d), p);
+                    text = text.toLowerCase(Locale.ROOT);
+                    int found = 0;
+                    for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) found++;
+                    if (found == 0) continue;
+                    count += found;
+                    int row = first[d] + 1 + p;
+                    if (row > selected && nextRow < 0) nextRow = row;
+                    if (wrappedRow < 0) wrappedRow = row;
+                }
+            }
+            return new SearchResult(count, nextRow >= 0 ? nextRow : wrappedRow, searched);
+        });
+    }
+
+    /** Whether the documents are still the ones a search went over. */
+    public boolean isCurrent(SearchResult result) {
+        return result.version() == version;
+    }
+
+    /** Scrolls to and selects a search's page; false if it found none or the documents changed since. */
+    public boolean select(SearchResult result) {
+        if (!isCurrent(result) || result.nextRow() < 0) return false;
+        scrollTo(result.nextRow());
+        getSelectionModel().clearAndSelect(result.nextRow());
+        return true;
+    }
+
+    private String pageText(Row row) {
+        String text = pageCache.get(row);
+        if (text != null) {
+            cacheStats.hit();
+        } else {
+            cacheStats.miss();
+            text = load(row.doc(), row.page());
+            pageCache.put(row, text);
+            cachedChars += text.length();
+            Iterator<String> it = pageCache.values().iterator();
+            while (cachedChars > CACHE_CHARS && pageCache.size() > 1) {
+                cachedChars -= it.next().length();
+                it.remove();
+            }
+        }
+        return text;
+    }
+
+    private String load(int doc, int page) {
+        return load(loader, documents.get(doc), page);
+    }
+
+    private static String load(PageLoader loader, String document, int page) {
+        try {
+            return loader.load(document, page);
+        } catch (IOException e) {
+            return "⚠ Couldn't read page " + (page + 1) + ": " + e.getMessage();
+        }
+    }
+
+    private class PageCell extends ListCell<Row> {
+        private final Text text = new Text();
+
+        PageCell() {
+            text.getStyleClass().add("page-text");
+            text.wrappingWidthProperty().bind(DocumentViewer.this.widthProperty().subtract(40));
+        }
+
+        @Override
+        protected void updateItem(Row row, boolean empty) {
+            super.updateItem(row, empty);
+            getStyleClass().remove("document-header");
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+            if (row.isHeader()) {
+                getStyleClass().add("document-header");
+                text.setText("=== " + documents.get(row.doc()) + " ===  (" + pageCounts[row.doc()] + " pages)");
+            } else {
+                text.setText(pageText(row));
+            }
+            setGraphic(text);
+        }
+    }
+}
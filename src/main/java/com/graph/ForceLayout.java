@@ -0,0 +1,168 @@
+package com.detextion.graph;
+
+import com.detextion.diagnostics.PerfEvents;
+import com.detextion.diagnostics.PerfStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Force-directed layout for the document graph: Coulomb repulsion between every pair of nodes,
+ * Hooke springs along edges, damped Euler integration and soft bounds.
+ *
+ * Holds positions itself rather than reading them from scene nodes, so a step can run (and be
+ * measured) without a JavaFX scene; the caller copies positions back to its shapes afterwards.
+ */
+public class ForceLayout {
+
+    // Tunables
+    private double repulsionK = 2800;   // Coulomb constant
+    private double damping = 0.85;      // velocity damping
+    private double timeStep = 0.016;    // ~60 FPS
+    private double repelClamp = 900;    // cap repulsive force
+    private double maxSpeed = 900;      // clamp speed
+    private double pad = 80;            // distance kept from the bounds
+
+    public static final class Body {
+        final String id;
+        double x, y;
+        double vx = 0, vy = 0;
+        final double mass = 1.0;
+
+        Body(String id, double x, double y) { this.id = id; this.x = x; this.y = y; }
+        public String id() { return id; }
+        public double x() { return x; }
+        public double y() { return y; }
+        public void set(double x, double y) { this.x = x; this.y = y; }
+    }
+
+    public static final class Spring {
+        final Body a, b;
+        final double k;        // spring constant
+        final double restLen;  // natural length
+
+        Spring(Body a, Body b, double k, double restLen) {
+            this.a = a; this.b = b; this.k = k; this.restLen = restLen;
+        }
+        public Body a() { return a; }
+        public Body b() { return b; }
+    }
+
+    private final List<Body> bodies = new ArrayList<>();
+    private final List<Spring> springs = new ArrayList<>();
+
+    public double timeStep() {
+        return timeStep;
+    }
+
+    public Body addBody(String id, double x, double y) {
+        Body body = new Body(id, x, y);
+        bodies.add(body);
+        return body;
+    }
+
+    public Spring addSpring(Body a, Body b, double k, double restLen) {
+        Spring spring = new Spring(a, b, k, restLen);
+        springs.add(spring);
+        return spring;
+    }
+
+    public List<Body> bodies() {
+        return Collections.unmodifiableList(bodies);
+    }
+
+    public List<Spring> springs() {
+        return Collections.unmodifiableList(springs);
+    }
+
+    public boolean isEmpty() {
+        return bodies.isEmpty();
+    }
+
+    public void clear() {
+        bodies.clear();
+        springs.clear();
+    }
+
+    /** Advances the simulation by one time step inside a {@code width} × {@code height} area. */
+    public void step(double width, double height) {
+        if (bodies.isEmpty()) return;
+        PerfEvents.PhysicsStep event = new PerfEvents.PhysicsStep();
+        event.begin();
+        long start = System.nanoTime();
+
+        // 1) Repulsion (all-pairs)
+        for (int i = 0; i < bodies.size(); i++) {
+            Body ni = bodies.get(i);
+            double fx = 0, fy = 0;
+
+            for (int j = 0; j < bodies.size(); j++) {
+                if (i == j) continue;
+                Body nj = bodies.get(j);
+
+                double dx = ni.x - nj.x;
+                double dy = ni.y - nj.y;
+                double dist2 = dx * dx + dy * dy + 0.01; // avoid div-by-zero
+                double dist = Math.sqrt(dist2);
+
+                // Coulomb repulsion: F = k / r^2
+                double force = repulsionK / dist2;
+                force = Math.min(force, repelClamp);
+
+                fx += force * (dx / dist);
+                fy += force * (dy / dist);
+            }
+
+            // Euler integrate velocities with damping
+            ni.vx = (ni.vx + (fx / ni.mass) * timeStep) * damping;
+            ni.vy = (ni.vy + (fy / ni.mass) * timeStep) * damping;
+        }
+
+        // 2) Springs (edges)
+        for (Spring e : springs) {
+            Body a = e.a, b = e.b;
+            double dx = b.x - a.x;
+            double dy = b.y - a.y;
+            double dist = Math.sqrt(dx * dx + dy * dy) + 0.001;
+            double stretch = dist - e.restLen;
+
+            // Hooke: F = k * stretch along the direction
+            double fx = e.k * stretch * (dx / dist);
+            double fy = e.k * stretch * (dy / dist);
+
+            // Apply equal and opposite forces
+            a.vx += fx * timeStep;
+            a.vy += fy * timeStep;
+            b.vx -= fx * timeStep;
+            b.vy -= fy * timeStep;
+        }
+
+        // 3) Integrate positions + soft bounds
+        for (Body n : bodies) {
+            // clamp speed
+            double speed = Math.sqrt(n.vx * n.vx + n.vy * n.vy);
+            if (speed > maxSpeed) {
+                n.vx = n.vx / speed * maxSpeed;
+                n.vy = n.vy / speed * maxSpeed;
+            }
+
+            double nx = n.x + n.vx * timeStep;
+            double ny = n.y + n.vy * timeStep;
+
+            // soft bounds with bounce
+            if (nx < pad) { nx = pad; n.vx *= -0.4; }
+            if (nx > width - pad) { nx = width - pad; n.vx *= -0.4; }
+            if (ny < pad) { ny = pad; n.vy *= -0.4; }
+            if (ny > height - pad) { ny = height - pad; n.vy *= -0.4; }
+
+            n.x = nx;
+            n.y = ny;
+        }
+
+        PerfStats.physicsStep(System.nanoTime() - start, bodies.size());
+        event.nodes = bodies.size();
+        event.springs = springs.size();
+        event.commit();
+    }
+}
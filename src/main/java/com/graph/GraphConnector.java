@@ -5,15 +5,26 @@ import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
 
 public class GraphConnector {
+    // Overridable with -Ddetextion.neo4j.uri=... (e.g. to point at a local test instance)
+    private static final String URI = System.getProperty("detextion.neo4j.uri", "bolt://localhost:7687");
+    private static final String USER = System.getProperty("detextion.neo4j.user", "neo4j");
+    private static final String PASSWORD = System.getProperty("detextion.neo4j.password", "password");
+
     private static Driver driver;
 
-    public static void connect() {
-        driver = GraphDatabase.driver("bolt://localhost:7687", AuthTokens.basic("neo4j", "password"));
-        System.out.println("Connected to Neo4j.");
+    public static synchronized void connect() {
+        if (driver != null) return;
+        driver = GraphDatabase.driver(URI, AuthTokens.basic(USER, PASSWORD));
+    }
+
+    /** Returns the shared driver, connecting on first use. */
+    public static synchronized Driver getDriver() {
+        connect();
+        return driver;
     }
 
-    public static void close() {
+    public static synchronized void close() {
         if (driver != null) driver.close();
+        driver = null;
     }
 }
-
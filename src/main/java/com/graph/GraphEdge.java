@@ -0,0 +1,61 @@
+package com.detextion.graph;
+
+import com.detextion.diagnostics.PerfEvents;
+
+import java.util.*;
+
+/**
+ * A weighted, undirected connection between two documents that share keywords.
+ * Endpoints are stored in lexical order so the same pair always maps to the same edge.
+ */
+public record GraphEdge(String source, String target, int weight, List<String> sharedKeywords) {
+
+    public GraphEdge {
+        if (source.compareTo(target) > 0) {
+            String tmp = source;
+            source = target;
+            target = tmp;
+        }
+        sharedKeywords = List.copyOf(sharedKeywords);
+    }
+
+    /**
+     * Builds SHARES edges for every pair of documents with at least one keyword in common.
+     * Uses an inverted keyword → documents index, so only pairs that actually overlap are visited.
+     *
+     * @param docKeywords document name → its keyword set
+     * @return one edge per overlapping document pair
+     */
+    public static List<GraphEdge> fromSharedKeywords(Map<String, Set<String>> docKeywords) {
+        PerfEvents.Similarity event = new PerfEvents.Similarity();
+        event.begin();
+        Map<String, List<String>> postings = new HashMap<>();
+        docKeywords.forEach((doc, keywords) -> {
+            for (String k : keywords) postings.computeIfAbsent(k, x -> new ArrayList<>()).add(doc);
+        });
+
+        Map<String, Map<String, List<String>>> pairs = new HashMap<>();
+        postings.forEach((keyword, docs) -> {
+            if (docs.size() < 2) return;
+            Collections.sort(docs);
+            for (int i = 0; i < docs.size(); i++) {
+                for (int j = i + 1; j < docs.size(); j++) {
+                    pairs.computeIfAbsent(docs.get(i), x -> new HashMap<>())
+                         .computeIfAbsent(docs.get(j), x -> new ArrayList<>())
+                         .add(keyword);
+                }
+            }
+        });
+
+        List<GraphEdge> edges = new ArrayList<>();
+        pairs.forEach((a, targets) -> targets.forEach((b, shared) -> {
+            Collections.sort(shared);
+            edges.add(new GraphEdge(a, b, shared.size(), shared));
+        }));
+        event.operation = "shared keywords";
+        event.documents = docKeywords.size();
+        event.edges = edges.size();
+        event.commit();
+        return edges;
+    }
+}
@@ -0,0 +1,656 @@
+package com.detextion.graph;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Streams the connection graph — nodes with their layout positions, weighted edges with their shared
+ * keywords — to and from GraphML, GEXF and JSON Lines.
+ *
+ * Writing goes through a {@link GraphSink} that emits each node and edge as it is handed over (StAX
+ * for the XML formats), so memory doesn't grow with the graph. Reading is the mirror image: a StAX or
+ * line-by-line pass calling a {@link GraphVisitor}. Positions are optional; a node without one is
+ * reported with NaN coordinates.
+ *
+ * Keywords are stored as one {@code ;}-separated attribute in the XML formats and as an array in
+ * JSON Lines:
+ * <pre>
+ * {"type":"node","id":"paper.pdf","x":412.5,"y":230.1}
+ * {"type":"edge","source":"a.pdf","target":"b.pdf","weight":2,"keywords":["graph","neural network"]}
+ * </pre>
+ */
+public final class GraphExchange {
+
+    public enum Format {
+        GRAPHML("graphml"), GEXF("gexf"), JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /** The format a file's extension names, or null. */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Format f : values()) if (name.endsWith("." + f.extension)) return f;
+            return null;
+        }
+    }
+
+    /** Receives the graph as it is written. Nodes must all come before the first edge. */
+    public interface GraphSink extends Closeable {
+        void node(String id, double x, double y) throws IOException;
+
+        void edge(GraphEdge edge) throws IOException;
+    }
+
+    /** Receives the graph as it is read, in file order. */
+    public interface GraphVisitor {
+        void node(String id, double x, double y);
+
+        void edge(GraphEdge edge);
+    }
+
+    private static final String KEYWORD_SEPARATOR = ";";
+
+    private GraphExchange() {}
+
+    public static GraphSink writer(Path file, Format format) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+        try {
+            return switch (format) {
+                case GRAPHML -> new GraphMlSink(out);
+                case GEXF -> new GexfSink(out);
+                case JSONL -> new JsonLinesSink(out);
+            };
+        } catch (XMLStreamException e) {
+            out.close();
+            throw new IOException("Couldn't start " + format + " output", e);
+        }
+    }
+
+    /** Reads {@code file} in the format its extension names. */
+    public static void read(Path file, GraphVisitor visitor) throws IOException {
+        Format format = Format.forFile(file);
+        if (format == null) throw new IOException("Unknown graph format: " + file.getFileName());
+        read(file, format, visitor);
+    }
+
+    public static void read(Path file, Format format, GraphVisitor visitor) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            switch (format) {
+                case GRAPHML -> readGraphMl(in, visitor);
+                case GEXF -> readGexf(in, visitor);
+                case JSONL -> readJsonLines(in, visitor);
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Malformed " + format + " file: " + e.getMessage(), e);
+        }
+    }
+
+    // ===========================================================
+    // XML writers
+    // ===========================================================
+
+    private abstract static class XmlSink implements GraphSink {
+        final OutputStream out;
+        final XMLStreamWriter xml;
+        boolean edges;
+
+        XmlSink(OutputStream out) throws XMLStreamException {
+            this.out = out;
+            this.xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+        }
+
+        @Override
+        public final void node(String id, double x, double y) throws IOException {
+            if (edges) throw new IllegalStateException("Nodes must be written before edges");
+            try {
+                writeNode(id, x, y);
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public final void edge(GraphEdge edge) throws IOException {
+            try {
+                if (!edges) {
+                    edges = true;
+                    startEdges();
+                }
+                writeEdge(edge);
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public final void close() throws IOException {
+            try {
+                if (!edges) startEdges();
+                finish();
+                xml.writeEndDocument();
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            } finally {
+                out.close();
+            }
+        }
+
+        abstract void writeNode(String id, double x, double y) throws XMLStreamException;
+
+        void startEdges() throws XMLStreamException {}
+
+        abstract void writeEdge(GraphEdge edge) throws XMLStreamException;
+
+        abstract void finish() throws XMLStreamException;
+
+        void indent(int depth) throws XMLStreamException {
+            xml.writeCharacters("\n" + "  ".repeat(depth));
+        }
+    }
+
+    private static final class GraphMlSink extends XmlSink {
+
+        GraphMlSink(OutputStream out) throws XMLStreamException {
+            super(out);
+            xml.writeStartElement("graphml");
+            xml.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+            key("x", "node", "double");
+            key("y", "node", "double");
+            key("weight", "edge", "int");
+            key("keywords", "edge", "string");
+            indent(1);
+            xml.writeStartElement("graph");
+            xml.writeAttribute("id", "G");
+            xml.writeAttribute("edgedefault", "undirected");
+        }
+
+        private void key(String name, String domain, String type) throws XMLStreamException {
+            indent(1);
+            xml.writeEmptyElement("key");
+            xml.writeAttribute("id", name);
+            xml.writeAttribute("for", domain);
+            xml.writeAttribute("attr.name", name);
+            xml.writeAttribute("attr.type", type);
+        }
+
+        @Override
+        void writeNode(String id, double x, double y) throws XMLStreamException {
+            indent(2);
+            xml.writeStartElement("node");
+            xml.writeAttribute("id", id);
+            if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                data("x", Double.toString(x));
+                data("y", Double.toString(y));
+            }
+            xml.writeEndElement();
+        }
+
+        @Override
+        void writeEdge(GraphEdge edge) throws XMLStreamException {
+            indent(2);
+            xml.writeStartElement("edge");
+            xml.writeAttribute("source", edge.source());
+            xml.writeAttribute("target", edge.target());
+            data("weight", Integer.toString(edge.weight()));
+            if (!edge.sharedKeywords().isEmpty()) data("keywords", String.join(KEYWORD_SEPARATOR, edge.sharedKeywords()));
+            xml.writeEndElement();
+        }
+
+        private void data(String key, String value) throws XMLStreamException {
+            xml.writeStartElement("data");
+            xml.writeAttribute("key", key);
+            xml.writeCharacters(value);
+            xml.writeEndElement();
+        }
+
+        @Override
+        void finish() throws XMLStreamException {
+            indent(1);
+            xml.writeEndElement(); // graph
+            xml.writeCharacters("\n");
+            xml.writeEndElement(); // graphml
+            xml.writeCharacters("\n");
+        }
+    }
+
+    private static final class GexfSink extends XmlSink {
+        private static final String NS = "http://gexf.net/1.3";
+        private static final String VIZ = "http://gexf.net/1.3/viz";
+        private long edgeId;
+
+        GexfSink(OutputStream out) throws XMLStreamException {
+            super(out);
+            xml.setPrefix("viz", VIZ);
+            xml.writeStartElement("gexf");
+            xml.writeDefaultNamespace(NS);
+            xml.writeNamespace("viz", VIZ);
+            xml.writeAttribute("version", "1.3");
+            indent(1);
+            xml.writeStartElement("graph");
+            xml.writeAttribute("defaultedgetype", "undirected");
+            indent(2);
+            xml.writeStartElement("attributes");
+            xml.writeAttribute("class", "edge");
+            indent(3);
+            xml.writeEmptyElement("attribute");
+            xml.writeAttribute("id", "keywords");
+            xml.writeAttribute("title", "keywords");
+            xml.writeAttribute("type", "string");
+            indent(2);
+            xml.writeEndElement();
+            indent(2);
+            xml.writeStartElement("nodes");
+        }
+
+        @Override
+        void writeNode(String id, double x, double y) throws XMLStreamException {
+            indent(3);
+            xml.writeStartElement("node");
+            xml.writeAttribute("id", id);
+            xml.writeAttribute("label", id);
+            if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                xml.writeEmptyElement(VIZ, "position");
+                xml.writeAttribute("x", Double.toString(x));
+                xml.writeAttribute("y", Double.toString(y));
+                xml.writeAttribute("z", "0.0");
+            }
+            xml.writeEndElement();
+        }
+
+        @Override
+        void startEdges() throws XMLStreamException {
+            indent(2);
+            xml.writeEndElement(); // nodes
+            indent(2);
+            xml.writeStartElement("edges");
+        }
+
+        @Override
+        void writeEdge(GraphEdge edge) throws XMLStreamException {
+            indent(3);
+            xml.writeStartElement("edge");
+            xml.writeAttribute("id", Long.toString(edgeId++));
+            xml.writeAttribute("source", edge.source());
+            xml.writeAttribute("target", edge.target());
+            xml.writeAttribute("weight", Integer.toString(edge.weight()));
+            if (!edge.sharedKeywords().isEmpty()) {
+                xml.writeStartElement("attvalues");
+                xml.writeEmptyElement("attvalue");
+                xml.writeAttribute("for", "keywords");
+                xml.writeAttribute("value", String.join(KEYWORD_SEPARATOR, edge.sharedKeywords()));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        }
+
+        @Override
+        void finish() throws XMLStreamException {
+            indent(2);
+            xml.writeEndElement(); // edges
+            indent(1);
+            xml.writeEndElement(); // graph
+            xml.writeCharacters("\n");
+            xml.writeEndElement(); // gexf
+            xml.writeCharacters("\n");
+        }
+    }
+
+    // ===========================================================
+    // JSON Lines writer
+    // ===========================================================
+
+    private static final class JsonLinesSink implements GraphSink {
+        private final Writer out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        JsonLinesSink(OutputStream out) {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void node(String id, double x, double y) throws IOException {
+            line.setLength(0);
+            line.append("{\"type\":\"node\",\"id\":");
+            appendJsonString(line, id);
+            if (!Double.isNaN(x) && !Double.isNaN(y)) line.append(",\"x\":").append(x).append(",\"y\":").append(y);
+            out.append(line.append("}\n"));
+        }
+
+        @Override
+        public void edge(GraphEdge edge) throws IOException {
+            line.setLength(0);
+            line.append("{\"type\":\"edge\",\"source\":");
+            appendJsonString(line, edge.source());
+            line.append(",\"target\":");
+            appendJsonString(line, edge.target());
+            line.append(",\"weight\":").append(edge.weight()).append(",\"keywords\":[");
+            for (int i = 0; i < edge.sharedKeywords().size(); i++) {
+                if (i > 0) line.append(',');
+                appendJsonString(line, edge.sharedKeywords().get(i));
+            }
+            out.append(line.append("]}\n"));
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Appends {@code s} as a quoted JSON string. The JSON Lines format and the analysis service's
+     * responses both escape through here.
+     */
+    public static void appendJsonString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    // ===========================================================
+    // Readers
+    // ===========================================================
+
+    private static XMLStreamReader xmlReader(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory.createXMLStreamReader(in);
+    }
+
+    /** GraphML from this class or other tools: data keys are matched by their attr.name. */
+    private static void readGraphMl(InputStream in, GraphVisitor visitor) throws XMLStreamException {
+        XMLStreamReader xml = xmlReader(in);
+        Map<String, String> keyNames = new HashMap<>();
+        String nodeId = null, source = null, target = null, dataKey = null;
+        double x = Double.NaN, y = Double.NaN;
+        int weight = 1;
+        List<String> keywords = List.of();
+        StringBuilder text = new StringBuilder();
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "key" -> keyNames.put(xml.getAttributeValue(null, "id"),
+                            Objects.requireNonNullElse(xml.getAttributeValue(null, "attr.name"), xml.getAttributeValue(null, "id")));
+                    case "node" -> {
+                        nodeId = xml.getAttributeValue(null, "id");
+                        x = y = Double.NaN;
+                    }
+                    case "edge" -> {
+                        source = xml.getAttributeValue(null, "source");
+                        target = xml.getAttributeValue(null, "target");
+                        weight = 1;
+                        keywords = List.of();
+                    }
+                    case "data" -> {
+                        dataKey = keyNames.getOrDefault(xml.getAttributeValue(null, "key"), xml.getAttributeValue(null, "key"));
+                        text.setLength(0);
+                    }
+                    default -> {}
+                }
+            } else if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && dataKey != null) {
+                text.append(xml.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "data" -> {
+                        String value = text.toString().trim();
+                        if (source != null) {
+                            if (dataKey.equals("weight")) weight = (int) Math.round(Double.parseDouble(value));
+                            else if (dataKey.equals("keywords")) keywords = splitKeywords(value);
+                        } else if (nodeId != null) {
+                            if (dataKey.equals("x")) x = Double.parseDouble(value);
+                            else if (dataKey.equals("y")) y = Double.parseDouble(value);
+                        }
+                        dataKey = null;
+                    }
+                    case "node" -> {
+                        visitor.node(nodeId, x, y);
+                        nodeId = null;
+                    }
+                    case "edge" -> {
+                        visitor.edge(new GraphEdge(source, target, weight, keywords));
+                        source = target = null;
+                    }
+                    default -> {}
+                }
+            }
+        }
+        xml.close();
+    }
+
+    /** GEXF: nodes are reported by label when they have one, and edges resolved to those labels. */
+    private static void readGexf(InputStream in, GraphVisitor visitor) throws XMLStreamException {
+        XMLStreamReader xml = xmlReader(in);
+        Map<String, String> labels = new HashMap<>();
+        Map<String, String> edgeAttributes = new HashMap<>(); // attribute id → title, for edges
+        boolean edgeClass = false;
+        String nodeId = null, nodeLabel = null, source = null, target = null;
+        double x = Double.NaN, y = Double.NaN;
+        int weight = 1;
+        List<String> keywords = List.of();
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "attributes" -> edgeClass = "edge".equals(xml.getAttributeValue(null, "class"));
+                    case "attribute" -> {
+                        if (edgeClass) edgeAttributes.put(xml.getAttributeValue(null, "id"), xml.getAttributeValue(null, "title"));
+                    }
+                    case "node" -> {
+                        nodeId = xml.getAttributeValue(null, "id");
+                        nodeLabel = Objects.requireNonNullElse(xml.getAttributeValue(null, "label"), nodeId);
+                        x = y = Double.NaN;
+                    }
+                    case "position" -> {
+                        if (nodeId != null) {
+                            x = Double.parseDouble(xml.getAttributeValue(null, "x"));
+                            y = Double.parseDouble(xml.getAttributeValue(null, "y"));
+                        }
+                    }
+                    case "edge" -> {
+                        source = xml.getAttributeValue(null, "source");
+                        target = xml.getAttributeValue(null, "target");
+                        String w = xml.getAttributeValue(null, "weight");
+                        weight = w == null ? 1 : (int) Math.round(Double.parseDouble(w));
+                        keywords = List.of();
+                    }
+                    case "attvalue" -> {
+                        String title = edgeAttributes.get(xml.getAttributeValue(null, "for"));
+                        if (source != null && "keywords".equals(title))
+                            keywords = splitKeywords(xml.getAttributeValue(null, "value"));
+                    }
+                    default -> {}
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (xml.getLocalName().equals("node") && nodeId != null) {
+                    labels.put(nodeId, nodeLabel);
+                    visitor.node(nodeLabel, x, y);
+                    nodeId = null;
+                } else if (xml.getLocalName().equals("edge") && source != null) {
+                    visitor.edge(new GraphEdge(labels.getOrDefault(source, source), labels.getOrDefault(target, target),
+                            weight, keywords));
+                    source = target = null;
+                }
+            }
+        }
+        xml.close();
+    }
+
+    private static void readJsonLines(InputStream in, GraphVisitor visitor) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) continue;
+            Map<String, Object> fields;
+            try {
+                fields = new FlatJson(line).object();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Line " + number + ": " + e.getMessage(), e);
+            }
+            switch (String.valueOf(fields.get("type"))) {
+                case "node" -> visitor.node(text(fields, "id", number), number(fields.get("x")), number(fields.get("y")));
+                case "edge" -> {
+                    List<String> keywords = new ArrayList<>();
+                    if (fields.get("keywords") instanceof List<?> list) for (Object k : list) keywords.add(String.valueOf(k));
+                    double weight = number(fields.get("weight"));
+                    visitor.edge(new GraphEdge(text(fields, "source", number), text(fields, "target", number),
+                            Double.isNaN(weight) ? keywords.size() : (int) Math.round(weight), keywords));
+                }
+                default -> throw new IOException("Line " + number + ": expected \"type\" node or edge");
+            }
+        }
+    }
+
+    private static String text(Map<String, Object> fields, String key, int line) throws IOException {
+        if (fields.get(key) instanceof String value) return value;
+        throw new IOException("Line " + line + ": expected a string \"" + key + "\"");
+    }
+
+    private static double number(Object value) {
+        return value instanceof Double d ? d : Double.NaN;
+    }
+
+    private static List<String> splitKeywords(String value) {
+        if (value == null || value.isBlank()) return List.of();
+        return List.of(value.split(KEYWORD_SEPARATOR));
+    }
+
+    /** Just enough JSON for one line: an object of strings, numbers, booleans, nulls and arrays of those. */
+    private static final class FlatJson {
+        private final String s;
+        private int i;
+
+        FlatJson(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                i++;
+                return fields;
+            }
+            do {
+                skipSpace();
+                String key = string();
+                expect(':');
+                fields.put(key, value());
+            } while (next() == ',');
+            if (s.charAt(i - 1) != '}') throw new IllegalArgumentException("expected } at column " + i);
+            return fields;
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '[') {
+                i++;
+                List<Object> list = new ArrayList<>();
+                if (peek() == ']') {
+                    i++;
+                    return list;
+                }
+                do list.add(value()); while (next() == ',');
+                if (s.charAt(i - 1) != ']') throw new IllegalArgumentException("expected ] at column " + i);
+                return list;
+            }
+            int start = i;
+            while (i < s.length() && ",}] \t".indexOf(s.charAt(i)) < 0) i++;
+            String token = s.substring(start, i);
+            return switch (token) {
+                case "true" -> Boolean.TRUE;
+                case "false" -> Boolean.FALSE;
+                case "null" -> null;
+                default -> {
+                    try {
+                        yield Double.parseDouble(token);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("bad value '" + token + "' at column " + start);
+                    }
+                }
+            };
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (i < s.length()) {
+                char c = s.charAt(i++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (i >= s.length()) break;
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                        i += 4;
+                    }
+                    default -> sb.append(e);
+                }
+            }
+            throw new IllegalArgumentException("unterminated string");
+        }
+
+        private void expect(char c) {
+            if (next() != c) throw new IllegalArgumentException("expected " + c + " at column " + i);
+        }
+
+        private char next() {
+            skipSpace();
+            if (i >= s.length()) throw new IllegalArgumentException("unexpected end of line");
+            return s.charAt(i++);
+        }
+
+        private char peek() {
+            skipSpace();
+            if (i >= s.length()) throw new IllegalArgumentException("unexpected end of line");
+            return s.charAt(i);
+        }
+
+        private void skipSpace() {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.detextion.graph;
+
+import com.detextion.diagnostics.PerfEvents;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Persists the keyword graph (documents, keywords, CONTAINS and SHARES relationships) to Neo4j.
+ *
+ * Rows are sent in large UNWIND batches through the async driver API, one transaction per batch.
+ * A semaphore caps the number of batches in flight, so a huge corpus cannot flood the driver's
+ * connection pool — the producing thread simply blocks until a slot frees up.
+ *
+ * The writer only needs a {@link Driver}, so it runs just as well against a local test instance
+ * (e.g. an embedded Neo4j harness) as against the server behind {@link GraphConnector}.
+ */
+public class GraphWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private static final String[] SCHEMA = {
+            "CREATE CONSTRAINT document_name IF NOT EXISTS FOR (d:Document) REQUIRE d.name IS UNIQUE",
+            "CREATE CONSTRAINT keyword_name IF NOT EXISTS FOR (k:Keyword) REQUIRE k.name IS UNIQUE"
+    };
+
+    private static final String MERGE_DOCUMENTS = """
+            UNWIND $rows AS row
+            MERGE (d:Document {name: row.name})
+            SET d.keywordCount = row.keywordCount
+            """;
+
+    private static final String MERGE_KEYWORDS = """
+            UNWIND $rows AS row
+            MERGE (k:Keyword {name: row.name})
+            SET k.frequency = row.frequency
+            """;
+
+    private static final String MERGE_CONTAINS = """
+            UNWIND $rows AS row
+            MATCH (d:Document {name: row.doc})
+            MATCH (k:Keyword {name: row.keyword})
+            MERGE (d)-[:CONTAINS]->(k)
+            """;
+
+    private static final String MERGE_SHARES = """
+            UNWIND $rows AS row
+            MATCH (a:Document {name: row.source})
+            MATCH (b:Document {name: row.target})
+            MERGE (a)-[s:SHARES]->(b)
+            SET s.weight = row.weight, s.keywords = row.keywords
+            """;
+
+    private final Driver driver;
+    private final int batchSize;
+    private final Semaphore inFlight;
+
+    public GraphWriter(Driver driver) {
+        this(driver, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public GraphWriter(Driver driver, int batchSize, int maxInFlight) {
+        if (batchSize <= 0 || maxInFlight <= 0)
+            throw new IllegalArgumentException("batchSize and maxInFlight must be positive");
+        this.driver = Objects.requireNonNull(driver, "driver");
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Writes the whole corpus graph. Blocks the calling thread (call it off the FX thread) while
+     * batches are pipelined; each phase completes before the next starts, so relationship
+     * batches always find their endpoint nodes.
+     *
+     * @param docKeywords      document name → keywords it contains
+     * @param keywordFrequency corpus-wide keyword counts (may be empty)
+     * @return number of rows written per phase
+     */
+    public WriteStats writeCorpus(Map<String, Set<String>> docKeywords, Map<String, Integer> keywordFrequency) {
+        return writeCorpus(docKeywords, keywordFrequency, GraphEdge.fromSharedKeywords(docKeywords));
+    }
+
+    public WriteStats writeCorpus(Map<String, Set<String>> docKeywords,
+                                  Map<String, Integer> keywordFrequency,
+                                  Collection<GraphEdge> edges) {
+        ensureSchema();
+
+        List<Map<String, Object>> docs = new ArrayList<>(docKeywords.size());
+        Set<String> allKeywords = new HashSet<>();
+        List<Map<String, Object>> contains = new ArrayList<>();
+        docKeywords.forEach((doc, keywords) -> {
+            docs.add(Map.of("name", doc, "keywordCount", keywords.size()));
+            for (String k : keywords) {
+                allKeywords.add(k);
+                contains.add(Map.of("doc", doc, "keyword", k));
+            }
+        });
+
+        List<Map<String, Object>> keywords = new ArrayList<>(allKeywords.size());
+        for (String k : allKeywords)
+            keywords.add(Map.of("name", k, "frequency", keywordFrequency.getOrDefault(k, 0)));
+
+        List<Map<String, Object>> shares = new ArrayList<>(edges.size());
+        for (GraphEdge e : edges)
+            shares.add(Map.of("source", e.source(), "target", e.target(),
+                    "weight", e.weight(), "keywords", e.sharedKeywords()));
+
+        // Documents and keywords are independent, so both node phases share one barrier
+        List<CompletableFuture<Void>> nodePhase = new ArrayList<>();
+        nodePhase.addAll(submitBatches(MERGE_DOCUMENTS, docs));
+        nodePhase.addAll(submitBatches(MERGE_KEYWORDS, keywords));
+        await(nodePhase);
+
+        List<CompletableFuture<Void>> relPhase = new ArrayList<>();
+        relPhase.addAll(submitBatches(MERGE_CONTAINS, contains));
+        relPhase.addAll(submitBatches(MERGE_SHARES, shares));
+        await(relPhase);
+
+        return new WriteStats(docs.size(), keywords.size(), contains.size(), shares.size());
+    }
+
+    /** Creates the uniqueness constraints MERGE relies on for index lookups. Idempotent. */
+    public void ensureSchema() {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (String stmt : SCHEMA) {
+            AsyncSession session = driver.session(AsyncSession.class);
+            pending.add(session.runAsync(stmt)
+                    .thenCompose(ResultCursor::consumeAsync)
+                    .handle((summary, err) -> session.closeAsync().thenApply(x -> rethrow(err)))
+                    .thenCompose(f -> f)
+                    .toCompletableFuture());
+        }
+        await(pending);
+    }
+
+    private List<CompletableFuture<Void>> submitBatches(String cypher, List<Map<String, Object>> rows) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Map<String, Object>> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            futures.add(submit(cypher, batch));
+        }
+        return futures;
+    }
+
+    /** Sends one batch as its own write transaction; blocks while too many batches are in flight. */
+    private CompletableFuture<Void> submit(String cypher, List<Map<String, Object>> batch) {
+        inFlight.acquireUninterruptibly();
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("neo4j", "write batch");
+        event.rows = batch.size();
+        Map<String, Object> params = Map.of("rows", batch);
+        CompletionStage<Void> write;
+        try {
+            AsyncSession session = driver.session(AsyncSession.class);
+            write = session.executeWriteAsync(tx -> tx.runAsync(cypher, params).thenCompose(ResultCursor::consumeAsync))
+                    .handle((summary, err) -> session.closeAsync().thenApply(x -> rethrow(err)))
+                    .thenCompose(f -> f);
+        } catch (RuntimeException | Error e) {
+            // Nothing was started, so the completion below will never run to free the slot
+            inFlight.release();
+            event.commit();
+            throw e;
+        }
+        return write
+                .whenComplete((x, err) -> {
+                    inFlight.release();
+                    event.commit();
+                })
+                .toCompletableFuture();
+    }
+
+    private static Void rethrow(Throwable err) {
+        if (err == null) return null;
+        throw err instanceof CompletionException ce ? ce : new CompletionException(err);
+    }
+
+    private static void await(List<CompletableFuture<Void>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /** Row counts written by {@link #writeCorpus}. */
+    public record WriteStats(int documents, int keywords, int containsRelationships, int sharesRelationships) {
+        @Override
+        public String toString() {
+            return documents + " documents, " + keywords + " keywords, "
+                    + containsRelationships + " CONTAINS, " + sharesRelationships + " SHARES";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.detextion.graph;
+
+import java.util.*;
+
+/**
+ * Incrementally maintained keyword → documents index for a growing session.
+ *
+ * {@link #add} returns the SHARES edges between the new document and those already indexed, found
+ * through the postings of the new document's own keywords. Adding a document therefore costs time
+ * proportional to its keywords and their postings, not to the size of the session — unlike
+ * {@link GraphEdge#fromSharedKeywords}, which rebuilds every edge from scratch.
+ */
+public class KeywordIndex {
+
+    private final Map<String, List<String>> postings = new HashMap<>();
+    private final Map<String, Set<String>> documents = new HashMap<>();
+
+    /** An index over an existing set of documents. */
+    public static KeywordIndex of(Map<String, Set<String>> docKeywords) {
+        KeywordIndex index = new KeywordIndex();
+        docKeywords.forEach(index::add);
+        return index;
+    }
+
+    /**
+     * Indexes {@code doc} and returns its edges to previously indexed documents. A document that is
+     * already indexed is left as it is and gets no edges.
+     */
+    public List<GraphEdge> add(String doc, Set<String> keywords) {
+        if (documents.containsKey(doc)) return List.of();
+        documents.put(doc, keywords);
+
+        Map<String, List<String>> shared = new HashMap<>();
+        for (String k : keywords) {
+            List<String> docs = postings.computeIfAbsent(k, x -> new ArrayList<>());
+            for (String other : docs) shared.computeIfAbsent(other, x -> new ArrayList<>()).add(k);
+            docs.add(doc);
+        }
+
+        List<GraphEdge> edges = new ArrayList<>(shared.size());
+        shared.forEach((other, common) -> {
+            Collections.sort(common);
+            edges.add(new GraphEdge(doc, other, common.size(), common));
+        });
+        return edges;
+    }
+
+    public boolean contains(String doc) {
+        return documents.containsKey(doc);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+}
@@ -0,0 +1,198 @@
+package com.detextion.graph;
+
+import com.detextion.diagnostics.PerfEvents;
+import com.detextion.diagnostics.PerfStats;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.async.AsyncSession;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the document graph stored by {@link GraphWriter} lazily, one neighborhood at a time.
+ *
+ * Instead of pulling the whole corpus graph, the view asks for the neighborhood of a focused
+ * document to a given depth. Each hop is one batched read for the whole frontier, restricted to
+ * SHARES edges at or above {@code minWeight} and to the strongest {@code maxNeighbors} edges per
+ * node, so the cost depends on what is shown rather than on the size of the stored graph.
+ *
+ * One-hop neighborhoods are kept in an LRU cache; {@link #prefetch} warms it in the background for
+ * the nodes the user is most likely to expand next.
+ */
+public class SubgraphLoader {
+
+    public static final int DEFAULT_CACHE_SIZE = 512;
+    public static final int DEFAULT_MAX_NEIGHBORS = 25;
+
+    private static final String NEIGHBORHOOD_QUERY = """
+            UNWIND $names AS name
+            MATCH (a:Document {name: name})
+            CALL {
+                WITH a
+                MATCH (a)-[r:SHARES]-(b:Document)
+                WHERE r.weight >= $minWeight
+                RETURN b.name AS neighbor, r.weight AS weight, r.keywords AS keywords
+                ORDER BY r.weight DESC
+                LIMIT $maxNeighbors
+            }
+            RETURN name, neighbor, weight, keywords
+            """;
+
+    private final Driver driver;
+    private final int minWeight;
+    private final int maxNeighbors;
+    private final Map<String, List<GraphEdge>> cache;
+    private final Map<String, CompletableFuture<List<GraphEdge>>> pending = new ConcurrentHashMap<>();
+    private final PerfStats.CacheCounter cacheStats = PerfStats.cache("neighborhoods");
+
+    public SubgraphLoader(Driver driver, int minWeight) {
+        this(driver, minWeight, DEFAULT_MAX_NEIGHBORS, DEFAULT_CACHE_SIZE);
+    }
+
+    public SubgraphLoader(Driver driver, int minWeight, int maxNeighbors, int cacheSize) {
+        this.driver = Objects.requireNonNull(driver, "driver");
+        this.minWeight = minWeight;
+        this.maxNeighbors = maxNeighbors;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<GraphEdge>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Loads the subgraph reachable from {@code focus} within {@code depth} hops.
+     * Completes on a driver thread — hop back to the UI thread before touching nodes.
+     */
+    public CompletableFuture<Subgraph> load(String focus, int depth) {
+        Set<String> nodes = new LinkedHashSet<>(List.of(focus));
+        Map<String, GraphEdge> edges = new LinkedHashMap<>();
+        return expand(Set.of(focus), depth, nodes, edges)
+                .thenApply(v -> new Subgraph(focus, nodes, new ArrayList<>(edges.values())));
+    }
+
+    /** Fetches neighborhoods of the given nodes into the cache without blocking the caller. */
+    public void prefetch(Collection<String> names) {
+        List<String> missing = names.stream().filter(n -> !isCached(n)).toList();
+        if (!missing.isEmpty()) neighborhoods(missing);
+    }
+
+    public boolean isCached(String name) {
+        return cache.containsKey(name);
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private CompletableFuture<Void> expand(Set<String> frontier, int depth,
+                                           Set<String> nodes, Map<String, GraphEdge> edges) {
+        if (depth <= 0 || frontier.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        return neighborhoods(frontier).thenCompose(byNode -> {
+            Set<String> next = new LinkedHashSet<>();
+            for (List<GraphEdge> list : byNode.values()) {
+                for (GraphEdge e : list) {
+                    edges.putIfAbsent(e.source() + "\u0000" + e.target(), e);
+                    if (nodes.add(e.source())) next.add(e.source());
+                    if (nodes.add(e.target())) next.add(e.target());
+                }
+            }
+            return expand(next, depth - 1, nodes, edges);
+        });
+    }
+
+    /** Resolves one-hop neighborhoods, serving hits from the cache and batching all misses into one query. */
+    private CompletableFuture<Map<String, List<GraphEdge>>> neighborhoods(Collection<String> names) {
+        Map<String, List<GraphEdge>> result = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        List<CompletableFuture<?>> waits = new ArrayList<>();
+
+        for (String name : names) {
+            List<GraphEdge> hit = cache.get(name);
+            if (hit != null) {
+                cacheStats.hit();
+                result.put(name, hit);
+                continue;
+            }
+            cacheStats.miss();
+            CompletableFuture<List<GraphEdge>> inFlight = pending.get(name);
+            if (inFlight != null) {
+                waits.add(inFlight.thenAccept(list -> { synchronized (result) { result.put(name, list); } }));
+            } else {
+                misses.add(name);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            CompletableFuture<Map<String, List<GraphEdge>>> fetch = fetch(misses);
+            for (String name : misses)
+                pending.put(name, fetch.thenApply(m -> m.getOrDefault(name, List.of())));
+            waits.add(fetch.whenComplete((m, err) -> {
+                misses.forEach(pending::remove);
+                if (m == null) return;
+                synchronized (result) {
+                    for (String name : misses) {
+                        List<GraphEdge> list = m.getOrDefault(name, List.of());
+                        cache.put(name, list);
+                        result.put(name, list);
+                    }
+                }
+            }));
+        }
+
+        return CompletableFuture.allOf(waits.toArray(new CompletableFuture<?>[0])).thenApply(v -> result);
+    }
+
+    private CompletableFuture<Map<String, List<GraphEdge>>> fetch(List<String> names) {
+        Map<String, Object> params = Map.of("names", names, "minWeight", minWeight, "maxNeighbors", maxNeighbors);
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("neo4j", "neighborhoods");
+        AsyncSession session = driver.session(AsyncSession.class);
+        CompletionStage<List<Record>> records = session.executeReadAsync(
+                tx -> tx.runAsync(NEIGHBORHOOD_QUERY, params).thenCompose(c -> c.listAsync()));
+
+        return records
+                .handle((list, err) -> session.closeAsync().thenApply(x -> {
+                    event.rows = list == null ? 0 : list.size();
+                    event.commit();
+                    if (err != null) throw new IllegalStateException("Neighborhood query failed", err);
+                    return toNeighborhoods(list);
+                }))
+                .thenCompose(f -> f)
+                .toCompletableFuture();
+    }
+
+    private static Map<String, List<GraphEdge>> toNeighborhoods(List<Record> records) {
+        Map<String, List<GraphEdge>> byNode = new HashMap<>();
+        for (Record r : records) {
+            String name = r.get("name").asString();
+            GraphEdge edge = new GraphEdge(name, r.get("neighbor").asString(), r.get("weight").asInt(),
+                    r.get("keywords").asList(v -> v.asString()));
+            byNode.computeIfAbsent(name, x -> new ArrayList<>()).add(edge);
+        }
+        return byNode;
+    }
+
+    /** A focused slice of the stored document graph. */
+    public record Subgraph(String focus, Set<String> nodes, List<GraphEdge> edges) {
+
+        /** Nodes on the edge of this subgraph, strongest connection first — the likeliest next expansions. */
+        public List<String> boundary(Set<String> alreadyExpanded, int limit) {
+            Map<String, Integer> strength = new HashMap<>();
+            for (GraphEdge e : edges) {
+                if (!alreadyExpanded.contains(e.source())) strength.merge(e.source(), e.weight(), Integer::sum);
+                if (!alreadyExpanded.contains(e.target())) strength.merge(e.target(), e.weight(), Integer::sum);
+            }
+            return strength.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+}
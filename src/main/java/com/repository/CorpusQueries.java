@@ -0,0 +1,117 @@
+package com.detextion.repository;
+
+import com.detextion.diagnostics.PerfEvents;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Read side of the document store: keyword aggregates served from the pre-aggregated, indexed
+ * tables that {@link DocumentRepository#ingest} maintains, so opening a stored corpus never has to
+ * re-read or re-tokenize document text.
+ */
+public class CorpusQueries {
+
+    private final DataSource dataSource;
+
+    public CorpusQueries() {
+        this(DatabaseConnection.getDataSource());
+    }
+
+    public CorpusQueries(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** A pair of documents and the keywords they share. */
+    public record DocumentPair(String docA, String docB, int sharedCount, List<String> sharedTerms) {}
+
+    /** Corpus-wide term totals, most frequent first (index scan on corpus_terms.total). */
+    public Map<String, Integer> topCorpusTerms(int k) throws SQLException {
+        return termMap("topCorpusTerms", "SELECT term, total FROM corpus_terms ORDER BY total DESC LIMIT ?", ps -> ps.setInt(1, k));
+    }
+
+    /** The {@code k} most frequent terms of one document (index scan on document_id, frequency). */
+    public Map<String, Integer> topTermsForDocument(String name, int k) throws SQLException {
+        return termMap("topTermsForDocument", """
+                SELECT t.term, t.frequency
+                FROM document_terms t JOIN documents d ON d.id = t.document_id
+                WHERE d.name = ?
+                ORDER BY t.frequency DESC
+                LIMIT ?
+                """, ps -> {
+            ps.setString(1, name);
+            ps.setInt(2, k);
+        });
+    }
+
+    /** Every stored document with its keyword set (the terms flagged is_keyword at ingest). */
+    public Map<String, Set<String>> documentKeywords() throws SQLException {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("postgres", "documentKeywords");
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                     SELECT d.name, t.term
+                     FROM documents d LEFT JOIN document_terms t ON t.document_id = d.id AND t.is_keyword
+                     ORDER BY d.id, t.frequency DESC
+                     """);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Set<String> keywords = result.computeIfAbsent(rs.getString(1), x -> new LinkedHashSet<>());
+                String term = rs.getString(2);
+                if (term != null) keywords.add(term);
+                event.rows++;
+            }
+        } finally {
+            event.commit();
+        }
+        return result;
+    }
+
+    /** Document pairs sharing at least {@code minShared} keywords, strongest first. */
+    public List<DocumentPair> sharedTermCounts(int minShared) throws SQLException {
+        List<DocumentPair> pairs = new ArrayList<>();
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("postgres", "sharedTermCounts");
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("""
+                     SELECT a.name, b.name, p.shared_count, p.shared_terms
+                     FROM document_pairs p
+                     JOIN documents a ON a.id = p.doc_a
+                     JOIN documents b ON b.id = p.doc_b
+                     WHERE p.shared_count >= ?
+                     ORDER BY p.shared_count DESC
+                     """)) {
+            ps.setInt(1, minShared);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String[] terms = (String[]) rs.getArray(4).getArray();
+                    pairs.add(new DocumentPair(rs.getString(1), rs.getString(2), rs.getInt(3), List.of(terms)));
+                }
+            }
+        } finally {
+            event.rows = pairs.size();
+            event.commit();
+        }
+        return pairs;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private Map<String, Integer> termMap(String operation, String sql, Binder binder) throws SQLException {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("postgres", operation);
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) result.put(rs.getString(1), (int) Math.min(Integer.MAX_VALUE, rs.getLong(2)));
+            }
+        } finally {
+            event.rows = result.size();
+            event.commit();
+        }
+        return result;
+    }
+}
@@ -1,16 +1,44 @@
 package com.detextion.repository;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:postgresql://localhost:5432/detextion";
-    private static final String USER = "postgres";
-    private static final String PASSWORD = "admin";
+    // Overridable with -Ddetextion.pg.url=... (e.g. to point at a local test instance)
+    private static final String URL = System.getProperty("detextion.pg.url", "jdbc:postgresql://localhost:5432/detextion");
+    private static final String USER = System.getProperty("detextion.pg.user", "postgres");
+    private static final String PASSWORD = System.getProperty("detextion.pg.password", "admin");
+
+    private static HikariDataSource dataSource;
 
+    /** Borrows a pooled connection; closing it returns it to the pool. */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return getDataSource().getConnection();
     }
-}
 
+    /** Returns the shared pool, creating it on first use. */
+    public static synchronized DataSource getDataSource() {
+        if (dataSource == null) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(URL);
+            config.setUsername(USER);
+            config.setPassword(PASSWORD);
+            config.setPoolName("detextion-pg");
+            config.setMaximumPoolSize(8);
+            config.setMinimumIdle(1);
+            // Let the driver fold JDBC batches into multi-row INSERTs
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
+            dataSource = new HikariDataSource(config);
+        }
+        return dataSource;
+    }
+
+    public static synchronized void close() {
+        if (dataSource != null) dataSource.close();
+        dataSource = null;
+    }
+}
@@ -0,0 +1,269 @@
+package com.detextion.repository;
+
+import com.detextion.diagnostics.PerfEvents;
+import com.detextion.textanalysis.TextInsights;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Postgres store for ingested documents: their extracted text and per-document term frequencies.
+ *
+ * Ingestion is built for bulk loads. Documents go in as multi-row INSERTs (one statement per chunk),
+ * and the much larger term table is streamed with {@code COPY ... FROM STDIN}, so 10,000 documents
+ * cost a few hundred round trips rather than millions of single-row inserts.
+ *
+ * Works against any {@link DataSource}; by default the shared pool from {@link DatabaseConnection}.
+ */
+public class DocumentRepository {
+
+    /** Documents per transaction / multi-row INSERT. */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /** Largest chunk whose INSERT (three binds per row) stays within Postgres's 32,767 bind parameters. */
+    public static final int MAX_CHUNK_SIZE = Short.MAX_VALUE / 3;
+
+    private static final String[] SCHEMA = {
+            """
+            CREATE TABLE IF NOT EXISTS documents (
+                id          BIGSERIAL PRIMARY KEY,
+                name        TEXT NOT NULL UNIQUE,
+                page_count  INT NOT NULL DEFAULT 0,
+                text        TEXT NOT NULL,
+                ingested_at TIMESTAMPTZ NOT NULL DEFAULT now()
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS document_terms (
+                document_id BIGINT NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+                term        TEXT NOT NULL,
+                frequency   INT NOT NULL,
+                PRIMARY KEY (document_id, term)
+            )
+            """,
+            // Top keywords of each document, flagged at ingest time (see TextInsights.KEYWORDS_PER_DOCUMENT)
+            "ALTER TABLE document_terms ADD COLUMN IF NOT EXISTS is_keyword BOOLEAN NOT NULL DEFAULT false",
+            "CREATE INDEX IF NOT EXISTS document_terms_top ON document_terms (document_id, frequency DESC)",
+            "CREATE INDEX IF NOT EXISTS document_terms_keyword ON document_terms (term, document_id) WHERE is_keyword",
+            // Corpus-wide totals, maintained incrementally by ingest()
+            """
+            CREATE TABLE IF NOT EXISTS corpus_terms (
+                term      TEXT PRIMARY KEY,
+                total     BIGINT NOT NULL,
+                doc_count INT NOT NULL
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS corpus_terms_total ON corpus_terms (total DESC)",
+            // Shared-keyword counts per document pair (doc_a < doc_b), maintained incrementally by ingest()
+            """
+            CREATE TABLE IF NOT EXISTS document_pairs (
+                doc_a        BIGINT NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+                doc_b        BIGINT NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+                shared_count INT NOT NULL,
+                shared_terms TEXT[] NOT NULL,
+                PRIMARY KEY (doc_a, doc_b)
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS document_pairs_b ON document_pairs (doc_b)"
+    };
+
+    private static final String SUBTRACT_CORPUS_TERMS = """
+            UPDATE corpus_terms c
+            SET total = c.total - d.total, doc_count = c.doc_count - d.docs
+            FROM (SELECT term, SUM(frequency) AS total, COUNT(*) AS docs
+                  FROM document_terms WHERE document_id = ANY (?) GROUP BY term) d
+            WHERE c.term = d.term
+            """;
+
+    /** Terms the subtracted documents were the last to contain; runs before their old terms are deleted. */
+    private static final String DELETE_EMPTY_CORPUS_TERMS = """
+            DELETE FROM corpus_terms c
+            USING (SELECT DISTINCT term FROM document_terms WHERE document_id = ANY (?)) d
+            WHERE c.term = d.term AND c.doc_count <= 0
+            """;
+
+    private static final String ADD_CORPUS_TERMS = """
+            INSERT INTO corpus_terms (term, total, doc_count)
+            SELECT term, SUM(frequency), COUNT(*)
+            FROM document_terms WHERE document_id = ANY (?) GROUP BY term
+            ON CONFLICT (term) DO UPDATE
+            SET total = corpus_terms.total + EXCLUDED.total,
+                doc_count = corpus_terms.doc_count + EXCLUDED.doc_count
+            """;
+
+    private static final String INSERT_PAIRS = """
+            INSERT INTO document_pairs (doc_a, doc_b, shared_count, shared_terms)
+            SELECT LEAST(n.document_id, o.document_id), GREATEST(n.document_id, o.document_id),
+                   COUNT(*), array_agg(n.term ORDER BY n.term)
+            FROM document_terms n
+            JOIN document_terms o ON o.term = n.term AND o.is_keyword AND o.document_id <> n.document_id
+            WHERE n.is_keyword AND n.document_id = ANY (?)
+              AND (o.document_id <> ALL (?) OR o.document_id > n.document_id)
+            GROUP BY 1, 2
+            """;
+
+    private final DataSource dataSource;
+    private final int chunkSize;
+
+    public DocumentRepository() {
+        this(DatabaseConnection.getDataSource(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public DocumentRepository(DataSource dataSource, int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE)
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE + ": " + chunkSize);
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+        this.chunkSize = chunkSize;
+    }
+
+    /** A document ready to be stored. */
+    public record DocumentRecord(String name, int pageCount, String text, Map<String, Integer> termFrequencies) {}
+
+    /** Creates tables if missing. Idempotent. */
+    public void ensureSchema() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : SCHEMA) stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Stores (or replaces, by name) a batch of documents and their term frequencies.
+     * Each chunk is one transaction; a failure rolls back only that chunk.
+     *
+     * @return document name → database ID
+     */
+    public Map<String, Long> ingest(List<DocumentRecord> documents) throws SQLException {
+        ensureSchema();
+        // One row per name — ON CONFLICT can't touch the same row twice in one statement
+        Map<String, DocumentRecord> byName = new LinkedHashMap<>();
+        for (DocumentRecord d : documents) byName.put(d.name(), d);
+        List<DocumentRecord> docs = new ArrayList<>(byName.values());
+
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("postgres", "ingest");
+        Map<String, Long> ids = new LinkedHashMap<>();
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < docs.size(); from += chunkSize) {
+                    List<DocumentRecord> chunk = docs.subList(from, Math.min(docs.size(), from + chunkSize));
+                    Map<String, Long> chunkIds = upsertDocuments(conn, chunk);
+                    replaceTerms(conn, chunk, chunkIds);
+                    conn.commit();
+                    ids.putAll(chunkIds);
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            event.rows = ids.size();
+            event.commit();
+        }
+        return ids;
+    }
+
+    /** Returns the stored text of a document, if present. */
+    public Optional<String> findText(String name) throws SQLException {
+        PerfEvents.DbCall event = PerfEvents.DbCall.begin("postgres", "findText");
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT text FROM documents WHERE name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getString(1)) : Optional.empty();
+            }
+        } finally {
+            event.commit();
+        }
+    }
+
+    /** One multi-row INSERT ... ON CONFLICT for the whole chunk, returning the IDs. */
+    private Map<String, Long> upsertDocuments(Connection conn, List<DocumentRecord> chunk) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO documents (name, page_count, text) VALUES ");
+        for (int i = 0; i < chunk.size(); i++) sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        sql.append("""
+                 ON CONFLICT (name) DO UPDATE
+                 SET page_count = EXCLUDED.page_count, text = EXCLUDED.text, ingested_at = now()
+                 RETURNING id, name
+                """);
+
+        Map<String, Long> ids = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (DocumentRecord d : chunk) {
+                ps.setString(p++, d.name());
+                ps.setInt(p++, d.pageCount());
+                ps.setString(p++, d.text().replace("\u0000", "")); // Postgres TEXT rejects NUL
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.put(rs.getString(2), rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    /** Drops any previous terms of these documents and streams the new ones in with COPY. */
+    private void replaceTerms(Connection conn, List<DocumentRecord> chunk, Map<String, Long> ids) throws SQLException {
+        Array idArray = conn.createArrayOf("bigint", ids.values().toArray());
+
+        // Take the old version of re-ingested documents out of the aggregates first
+        execute(conn, SUBTRACT_CORPUS_TERMS, idArray);
+        execute(conn, DELETE_EMPTY_CORPUS_TERMS, idArray);
+        execute(conn, "DELETE FROM document_pairs WHERE doc_a = ANY (?) OR doc_b = ANY (?)", idArray, idArray);
+        execute(conn, "DELETE FROM document_terms WHERE document_id = ANY (?)", idArray);
+
+        StringBuilder rows = new StringBuilder();
+        for (DocumentRecord d : chunk) {
+            long id = ids.get(d.name());
+            Set<String> keywords = TextInsights.topKeywords(d.termFrequencies(), TextInsights.KEYWORDS_PER_DOCUMENT).keySet();
+            d.termFrequencies().forEach((term, freq) ->
+                    rows.append(id).append('\t').append(escapeCopy(term)).append('\t').append(freq)
+                        .append('\t').append(keywords.contains(term) ? 't' : 'f').append('\n'));
+        }
+
+        if (!rows.isEmpty()) {
+            try {
+                CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+                copy.copyIn("COPY document_terms (document_id, term, frequency, is_keyword) FROM STDIN",
+                        new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into document_terms failed", e);
+            }
+        }
+
+        // Fold the new terms into the corpus totals and pair counts — work proportional to the chunk
+        execute(conn, ADD_CORPUS_TERMS, idArray);
+        execute(conn, INSERT_PAIRS, idArray, idArray);
+    }
+
+    private static void execute(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Escapes a value for COPY's text format, dropping NUL like the text column does. */
+    private static String escapeCopy(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\0' -> {} // Postgres TEXT rejects NUL
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
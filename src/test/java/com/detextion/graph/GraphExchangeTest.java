@@ -0,0 +1,201 @@
+package com.detextion.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Writes and reads back each {@link GraphExchange.Format}, and reads files from elsewhere or damaged ones. */
+class GraphExchangeTest {
+
+    @TempDir
+    Path dir;
+
+    /** What a {@link GraphExchange.GraphVisitor} was handed, positions as {x, y}. */
+    private static final class Collected implements GraphExchange.GraphVisitor {
+        final Map<String, double[]> nodes = new LinkedHashMap<>();
+        final List<GraphEdge> edges = new ArrayList<>();
+
+        @Override
+        public void node(String id, double x, double y) {
+            nodes.put(id, new double[] { x, y });
+        }
+
+        @Override
+        public void edge(GraphEdge edge) {
+            edges.add(edge);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphExchange.Format.class)
+    void roundTripsNodesPositionsAndKeywords(GraphExchange.Format format) throws IOException {
+        Path file = dir.resolve("graph." + format.extension());
+        List<GraphEdge> edges = List.of(
+                new GraphEdge("a.pdf", "naïve résumé.pdf", 3, List.of("say \"hi\"", "straße", "自然言語")),
+                new GraphEdge("a.pdf", "quote\"d & <tagged>.pdf", 1, List.of("back\\slash")),
+                new GraphEdge("naïve résumé.pdf", "quote\"d & <tagged>.pdf", 0, List.of()));
+        try (GraphExchange.GraphSink sink = GraphExchange.writer(file, format)) {
+            sink.node("a.pdf", 412.5, -230.25);
+            sink.node("naïve résumé.pdf", Double.NaN, Double.NaN);
+            sink.node("quote\"d & <tagged>.pdf", 0, 1e-3);
+            for (GraphEdge e : edges) sink.edge(e);
+        }
+
+        Collected read = new Collected();
+        GraphExchange.read(file, read);
+
+        assertEquals(List.of("a.pdf", "naïve résumé.pdf", "quote\"d & <tagged>.pdf"), List.copyOf(read.nodes.keySet()));
+        assertArrayEquals(new double[] { 412.5, -230.25 }, read.nodes.get("a.pdf"));
+        assertTrue(Double.isNaN(read.nodes.get("naïve résumé.pdf")[0]));
+        assertTrue(Double.isNaN(read.nodes.get("naïve résumé.pdf")[1]));
+        assertArrayEquals(new double[] { 0, 1e-3 }, read.nodes.get("quote\"d & <tagged>.pdf"));
+        assertEquals(edges, read.edges);
+    }
+
+    @Test
+    void jsonLinesEscapesControlCharacters() throws IOException {
+        Path file = dir.resolve("graph.jsonl");
+        GraphEdge edge = new GraphEdge("line\nbreak.pdf", "tab\there.pdf", 1, List.of("bell\u0007", "cr\r"));
+        try (GraphExchange.GraphSink sink = GraphExchange.writer(file, GraphExchange.Format.JSONL)) {
+            sink.node("line\nbreak.pdf", 1, 2);
+            sink.node("tab\there.pdf", 3, 4);
+            sink.edge(edge);
+        }
+        assertEquals(3, Files.readAllLines(file).size());
+
+        Collected read = new Collected();
+        GraphExchange.read(file, read);
+        assertEquals(Set.of("line\nbreak.pdf", "tab\there.pdf"), read.nodes.keySet());
+        assertEquals(List.of(edge), read.edges);
+    }
+
+    @Test
+    void gexfNodeIdsResolveToLabels() throws IOException {
+        Path file = write("other.gexf", """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <gexf xmlns="http://gexf.net/1.3" xmlns:viz="http://gexf.net/1.3/viz" version="1.3">
+                  <graph defaultedgetype="undirected">
+                    <attributes class="edge">
+                      <attribute id="0" title="keywords" type="string"/>
+                    </attributes>
+                    <nodes>
+                      <node id="n0" label="b.pdf"><viz:position x="10.0" y="20.0" z="0.0"/></node>
+                      <node id="n1" label="a.pdf"/>
+                      <node id="n2"/>
+                    </nodes>
+                    <edges>
+                      <edge id="e0" source="n0" target="n1" weight="2.0">
+                        <attvalues><attvalue for="0" value="graph;layout"/></attvalues>
+                      </edge>
+                      <edge id="e1" source="n2" target="n0"/>
+                    </edges>
+                  </graph>
+                </gexf>
+                """);
+
+        Collected read = new Collected();
+        GraphExchange.read(file, read);
+
+        assertEquals(List.of("b.pdf", "a.pdf", "n2"), List.copyOf(read.nodes.keySet()));
+        assertArrayEquals(new double[] { 10, 20 }, read.nodes.get("b.pdf"));
+        assertEquals(List.of(
+                new GraphEdge("a.pdf", "b.pdf", 2, List.of("graph", "layout")),
+                new GraphEdge("b.pdf", "n2", 1, List.of())), read.edges);
+    }
+
+    @Test
+    void graphMlKeysAreMatchedByAttributeName() throws IOException {
+        Path file = write("other.graphml", """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <graphml xmlns="http://graphml.graphdrawing.org/xmlns">
+                  <key id="d0" for="node" attr.name="x" attr.type="double"/>
+                  <key id="d1" for="node" attr.name="y" attr.type="double"/>
+                  <key id="d2" for="edge" attr.name="weight" attr.type="double"/>
+                  <graph edgedefault="undirected">
+                    <node id="a.pdf"><data key="d0">1.5</data><data key="d1">2.5</data></node>
+                    <node id="b.pdf"/>
+                    <edge source="b.pdf" target="a.pdf"><data key="d2">4.4</data></edge>
+                  </graph>
+                </graphml>
+                """);
+
+        Collected read = new Collected();
+        GraphExchange.read(file, read);
+
+        assertArrayEquals(new double[] { 1.5, 2.5 }, read.nodes.get("a.pdf"));
+        assertTrue(Double.isNaN(read.nodes.get("b.pdf")[0]));
+        assertEquals(List.of(new GraphEdge("a.pdf", "b.pdf", 4, List.of())), read.edges);
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphExchange.Format.class)
+    void truncatedFilesAreReportedAsIOException(GraphExchange.Format format) throws IOException {
+        Path file = dir.resolve("graph." + format.extension());
+        try (GraphExchange.GraphSink sink = GraphExchange.writer(file, format)) {
+            sink.node("a.pdf", 1, 2);
+            sink.node("b.pdf", 3, 4);
+            sink.edge(new GraphEdge("a.pdf", "b.pdf", 1, List.of("graph")));
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 6));
+
+        assertThrows(IOException.class, () -> GraphExchange.read(file, new Collected()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"type\":\"node\",\"id\":\"a.pdf\",\"x\":1e}",
+            "{\"type\":\"node\",\"id\":5}",
+            "{\"type\":\"edge\",\"source\":\"a.pdf\",\"target\":\"b\\",
+            "{\"type\":\"edge\",\"source\":\"a.pdf\",\"target\":\"\\u12\"}",
+            "{\"type\":\"edge\",\"source\":\"a.pdf\",\"target\":\"\\uzzzz\"}",
+            "{\"type\":\"edge\",\"source\":\"a.pdf\",\"keywords\":[\"x\"}",
+            "{\"type\":\"cluster\"}",
+            "[1, 2]",
+    })
+    void corruptJsonLinesAreReportedAsIOException(String line) throws IOException {
+        Path file = write("bad.jsonl", "{\"type\":\"node\",\"id\":\"ok.pdf\"}\n" + line + "\n");
+        IOException e = assertThrows(IOException.class, () -> GraphExchange.read(file, new Collected()));
+        assertTrue(e.getMessage().startsWith("Line 2"), e.getMessage());
+    }
+
+    @Test
+    void corruptNumbersInXmlAreReportedAsIOException() throws IOException {
+        Path graphMl = write("bad.graphml", """
+                <graphml xmlns="http://graphml.graphdrawing.org/xmlns">
+                  <key id="x" for="node" attr.name="x" attr.type="double"/>
+                  <graph><node id="a.pdf"><data key="x">left</data></node></graph>
+                </graphml>
+                """);
+        Path gexf = write("bad.gexf", """
+                <gexf xmlns="http://gexf.net/1.3" version="1.3"><graph>
+                  <nodes><node id="a" label="a.pdf"/><node id="b" label="b.pdf"/></nodes>
+                  <edges><edge source="a" target="b" weight="heavy"/></edges>
+                </graph></gexf>
+                """);
+
+        assertThrows(IOException.class, () -> GraphExchange.read(graphMl, new Collected()));
+        assertThrows(IOException.class, () -> GraphExchange.read(gexf, new Collected()));
+    }
+
+    @Test
+    void formatFollowsTheExtension() {
+        assertEquals(GraphExchange.Format.GEXF, GraphExchange.Format.forFile(Path.of("Graph.GEXF")));
+        assertNull(GraphExchange.Format.forFile(Path.of("graph.json")));
+        assertThrows(IOException.class, () -> GraphExchange.read(dir.resolve("graph.json"), new Collected()));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
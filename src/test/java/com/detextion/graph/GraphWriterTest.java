@@ -0,0 +1,113 @@
+package com.detextion.graph;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Session;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** {@link GraphWriter} against an in-process Neo4j reached over loopback Bolt; no server to install. */
+class GraphWriterTest {
+
+    private static Neo4j neo4j;
+    private static Driver driver;
+
+    @BeforeAll
+    static void startNeo4j() {
+        neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+        driver = GraphDatabase.driver(neo4j.boltURI(), AuthTokens.none());
+    }
+
+    @AfterAll
+    static void stopNeo4j() {
+        if (driver != null) driver.close();
+        if (neo4j != null) neo4j.close();
+    }
+
+    @BeforeEach
+    void emptyDatabase() {
+        try (Session session = driver.session()) {
+            session.run("MATCH (n) DETACH DELETE n").consume();
+        }
+    }
+
+    @Test
+    void writesDocumentsKeywordsAndRelationships() {
+        Map<String, Set<String>> docs = new LinkedHashMap<>();
+        docs.put("a.pdf", Set.of("graph", "neural", "layout"));
+        docs.put("b.pdf", Set.of("graph", "neural"));
+        docs.put("c.pdf", Set.of("corpus"));
+
+        GraphWriter.WriteStats stats = new GraphWriter(driver).writeCorpus(docs, Map.of("graph", 7));
+
+        assertEquals(new GraphWriter.WriteStats(3, 4, 6, 1), stats);
+        assertEquals(3, count("MATCH (d:Document) RETURN count(d)"));
+        assertEquals(4, count("MATCH (k:Keyword) RETURN count(k)"));
+        assertEquals(6, count("MATCH (:Document)-[r:CONTAINS]->(:Keyword) RETURN count(r)"));
+        assertEquals(7, count("MATCH (k:Keyword {name: 'graph'}) RETURN k.frequency"));
+        try (Session session = driver.session()) {
+            var shares = session.run("MATCH (a:Document)-[s:SHARES]->(b:Document) RETURN a.name, b.name, s.weight, s.keywords")
+                    .single();
+            assertEquals("a.pdf", shares.get(0).asString());
+            assertEquals("b.pdf", shares.get(1).asString());
+            assertEquals(2, shares.get(2).asInt());
+            assertEquals(List.of("graph", "neural"), shares.get(3).asList(v -> v.asString()));
+        }
+    }
+
+    @Test
+    void smallBatchesAndRewritesLeaveOneNodePerName() {
+        Map<String, Set<String>> docs = new LinkedHashMap<>();
+        for (int d = 0; d < 50; d++) docs.put("doc-" + d, Set.of("a" + d % 7, "b" + d % 11, "shared"));
+
+        GraphWriter writer = new GraphWriter(driver, 8, 2);
+        writer.writeCorpus(docs, Map.of());
+        GraphWriter.WriteStats again = writer.writeCorpus(docs, Map.of());
+
+        assertEquals(50, count("MATCH (d:Document) RETURN count(d)"));
+        assertEquals(again.keywords(), count("MATCH (k:Keyword) RETURN count(k)"));
+        assertEquals(again.containsRelationships(), count("MATCH ()-[r:CONTAINS]->() RETURN count(r)"));
+        assertEquals(again.sharesRelationships(), count("MATCH ()-[r:SHARES]->() RETURN count(r)"));
+    }
+
+    @Test
+    void batchThatFailsToStartReleasesItsSlot() {
+        // Let the two schema sessions through, then fail opening the first batch's session
+        int[] sessions = { 0 };
+        Driver failing = (Driver) Proxy.newProxyInstance(Driver.class.getClassLoader(), new Class<?>[] { Driver.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("session") && ++sessions[0] == 3)
+                        throw new IllegalStateException("session refused");
+                    try {
+                        return method.invoke(driver, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        GraphWriter writer = new GraphWriter(failing, 10, 1);
+        Map<String, Set<String>> docs = Map.of("a.pdf", Set.of("x"));
+
+        assertThrows(IllegalStateException.class, () -> writer.writeCorpus(docs, Map.of()));
+        GraphWriter.WriteStats stats = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> writer.writeCorpus(docs, Map.of()));
+        assertEquals(new GraphWriter.WriteStats(1, 1, 1, 0), stats);
+    }
+
+    private static long count(String cypher) {
+        try (Session session = driver.session()) {
+            return session.run(cypher).single().get(0).asLong();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.detextion.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** {@link DocumentRepository} and {@link CorpusQueries} against a throwaway local Postgres. */
+class DocumentRepositoryTest {
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getPostgresDatabase();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) postgres.close();
+    }
+
+    @BeforeEach
+    void emptyDatabase() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS document_pairs, document_terms, corpus_terms, documents CASCADE");
+        }
+    }
+
+    @Test
+    void ingestsInChunksAndMaintainsAggregates() throws SQLException {
+        DocumentRepository repository = new DocumentRepository(dataSource, 2);
+        repository.ingest(List.of(
+                doc("a.pdf", Map.of("graph", 5, "neural", 3, "layout", 1)),
+                doc("b.pdf", Map.of("graph", 2, "neural", 4)),
+                doc("c.pdf", Map.of("corpus", 7))));
+
+        CorpusQueries queries = new CorpusQueries(dataSource);
+        assertEquals(Map.of("graph", 7, "neural", 7, "corpus", 7, "layout", 1), queries.topCorpusTerms(10));
+        assertEquals(Set.of("a.pdf", "b.pdf", "c.pdf"), queries.documentKeywords().keySet());
+        List<CorpusQueries.DocumentPair> pairs = queries.sharedTermCounts(1);
+        assertEquals(1, pairs.size());
+        assertEquals(2, pairs.get(0).sharedCount());
+        assertEquals(List.of("graph", "neural"), pairs.get(0).sharedTerms());
+        assertEquals(Optional.of("text of a.pdf"), repository.findText("a.pdf"));
+    }
+
+    @Test
+    void reingestReplacesTermsAndDropsVanishedCorpusTerms() throws SQLException {
+        DocumentRepository repository = new DocumentRepository(dataSource, DocumentRepository.DEFAULT_CHUNK_SIZE);
+        repository.ingest(List.of(doc("a.pdf", Map.of("graph", 5, "layout", 2)), doc("b.pdf", Map.of("graph", 1))));
+        repository.ingest(List.of(doc("a.pdf", Map.of("graph", 1, "topic", 4))));
+
+        assertEquals(Map.of("graph", 2, "topic", 4), new CorpusQueries(dataSource).topCorpusTerms(10));
+        assertEquals(0, count("SELECT count(*) FROM corpus_terms WHERE total = 0 OR doc_count = 0"));
+    }
+
+    @Test
+    void copiesTermsWithSpecialCharacters() throws SQLException {
+        DocumentRepository repository = new DocumentRepository(dataSource, DocumentRepository.DEFAULT_CHUNK_SIZE);
+        repository.ingest(List.of(new DocumentRepository.DocumentRecord("odd.pdf", 1, "nul\u0000text",
+                Map.of("tab\there", 1, "back\\slash", 2, "line\nbreak", 3, "nul\0char", 4))));
+
+        assertEquals(Map.of("line\nbreak", 3, "back\\slash", 2, "tab\there", 1, "nulchar", 4),
+                new CorpusQueries(dataSource).topTermsForDocument("odd.pdf", 10));
+        assertEquals(Optional.of("nultext"), repository.findText("odd.pdf"));
+    }
+
+    @Test
+    void rejectsChunksBeyondTheBindParameterLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new DocumentRepository(dataSource, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DocumentRepository(dataSource, DocumentRepository.MAX_CHUNK_SIZE + 1));
+        assertDoesNotThrow(() -> new DocumentRepository(dataSource, DocumentRepository.MAX_CHUNK_SIZE));
+    }
+
+    private static DocumentRepository.DocumentRecord doc(String name, Map<String, Integer> terms) {
+        return new DocumentRepository.DocumentRecord(name, 1, "text of " + name, terms);
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement();
+             var rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.detextion.storage;
+
+import com.detextion.textanalysis.Tokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Corpus files written by {@link CorpusWriter} and read back page by page through {@link CorpusReader}. */
+class CorpusFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static final Map<String, List<String>> DOCUMENTS = new LinkedHashMap<>();
+    static {
+        DOCUMENTS.put("paper.pdf", List.of("Graph layouts for Neural networks.\n", "", "Page three, the end."));
+        DOCUMENTS.put("naïve résumé.pdf", List.of("Élève naïve Straße — 自然言語処理 and ＡＢＣ."));
+        DOCUMENTS.put("empty.pdf", List.of());
+        DOCUMENTS.put("long.pdf", List.of("word ".repeat(50_000) + "tail"));
+    }
+
+    @Test
+    void roundTripsPagesNamesAndTokens() throws IOException {
+        Path file = dir.resolve("corpus.dtxc");
+        write(file, 0);
+
+        try (CorpusReader reader = new CorpusReader(file)) {
+            assertCorpus(reader);
+            assertEquals(file, reader.file());
+        }
+    }
+
+    @Test
+    void readsASectionEmbeddedAfterOtherBytes() throws IOException {
+        Path file = dir.resolve("workspace.bin");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7 });
+        write(file, 7);
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, Arrays.copyOf(Files.readAllBytes(file), 7));
+        try (CorpusReader reader = new CorpusReader(file, 7)) {
+            assertCorpus(reader);
+        }
+    }
+
+    @Test
+    void pagesOutOfRangeAreRejected() throws IOException {
+        Path file = dir.resolve("corpus.dtxc");
+        write(file, 0);
+        try (CorpusReader reader = new CorpusReader(file)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.pageText(0, 3));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.pageText(2, 0));
+            assertEquals(-1, reader.indexOf("missing.pdf"));
+        }
+    }
+
+    @Test
+    void notACorpusFile() throws IOException {
+        Path file = Files.writeString(dir.resolve("notes.dtxc"), "x".repeat(64));
+        IOException e = assertThrows(IOException.class, () -> new CorpusReader(file));
+        assertTrue(e.getMessage().startsWith("Not a DeTextion corpus file"), e.getMessage());
+    }
+
+    @Test
+    void truncatedFilesAreReportedAsIOException() throws IOException {
+        Path file = dir.resolve("corpus.dtxc");
+        write(file, 0);
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int length : new int[] { 0, 20, bytes.length / 2, bytes.length - 1 }) {
+            Path cut = Files.write(dir.resolve("cut-" + length + ".dtxc"), Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> new CorpusReader(cut).close(), "length " + length);
+        }
+    }
+
+    @Test
+    void corruptPageBlockIsReportedAsIOException() throws IOException {
+        Path file = dir.resolve("corpus.dtxc");
+        write(file, 0);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF }),
+                    CorpusWriter.HEADER_BYTES);
+        }
+        try (CorpusReader reader = new CorpusReader(file)) {
+            assertThrows(IOException.class, () -> reader.pageText(0, 0));
+        }
+    }
+
+    private static void write(Path file, long base) throws IOException {
+        try (CorpusWriter writer = base == 0 ? new CorpusWriter(file) : new CorpusWriter(file, base)) {
+            int index = 0;
+            for (Map.Entry<String, List<String>> d : DOCUMENTS.entrySet())
+                assertEquals(index++, writer.addDocument(d.getKey(), d.getValue()));
+        }
+    }
+
+    private static void assertCorpus(CorpusReader reader) throws IOException {
+        assertEquals(List.copyOf(DOCUMENTS.keySet()), reader.documentNames());
+        assertEquals(5, reader.totalPages());
+        int doc = 0;
+        for (Map.Entry<String, List<String>> d : DOCUMENTS.entrySet()) {
+            assertEquals(doc, reader.indexOf(d.getKey()));
+            List<String> pages = d.getValue();
+            assertEquals(pages.size(), reader.pageCount(doc));
+            for (int p = 0; p < pages.size(); p++) {
+                assertEquals(pages.get(p), reader.pageText(doc, p));
+                // The token stream holds the same words the tokenizer finds, stopwords included
+                List<String> tokens = new ArrayList<>();
+                for (int id : reader.termIds(doc, p)) tokens.add(reader.term(id));
+                assertEquals(Tokenizer.DEFAULT.words(pages.get(p)), tokens);
+            }
+            assertEquals(String.join("", pages), reader.documentText(doc));
+            doc++;
+        }
+    }
+}
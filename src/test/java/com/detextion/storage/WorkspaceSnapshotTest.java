@@ -0,0 +1,112 @@
+package com.detextion.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Saving a session with {@link WorkspaceSnapshot#save} and opening it again. */
+class WorkspaceSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static final Map<String, List<String>> PAGES = Map.of(
+            "a.pdf", List.of("Graph layouts.", "Neural networks."),
+            "ünïcode «b».pdf", List.of("Straße 自然言語"),
+            "unplaced.pdf", List.of());
+
+    @Test
+    void roundTripsKeywordsCountsPositionsAndText() throws IOException {
+        Path file = dir.resolve("session.dtxw");
+        Map<String, Set<String>> keywords = new LinkedHashMap<>();
+        keywords.put("a.pdf", new LinkedHashSet<>(List.of("graph", "neural")));
+        keywords.put("ünïcode «b».pdf", new LinkedHashSet<>(List.of("straße", "自然")));
+        keywords.put("unplaced.pdf", Set.of());
+        Map<String, Integer> frequency = Map.of("graph", 3, "neural", 1, "straße", 2, "自然", 1);
+        Map<String, WorkspaceSnapshot.Position> positions = Map.of(
+                "a.pdf", new WorkspaceSnapshot.Position(12.5, -3),
+                "ünïcode «b».pdf", new WorkspaceSnapshot.Position(0, 400));
+
+        WorkspaceSnapshot.save(file, keywords, frequency, positions, PAGES::get);
+
+        try (WorkspaceSnapshot.Workspace ws = WorkspaceSnapshot.open(file)) {
+            assertEquals(keywords, ws.documentKeywords());
+            assertEquals(List.copyOf(keywords.keySet()), List.copyOf(ws.documentKeywords().keySet()));
+            assertEquals(List.of("graph", "neural"), List.copyOf(ws.documentKeywords().get("a.pdf")));
+            assertEquals(frequency, ws.keywordFrequency());
+            assertEquals(positions, ws.positions());
+
+            CorpusReader corpus = ws.corpus();
+            assertEquals(List.copyOf(keywords.keySet()), corpus.documentNames());
+            for (String name : keywords.keySet()) {
+                int doc = corpus.indexOf(name);
+                List<String> pages = PAGES.get(name);
+                assertEquals(pages.size(), corpus.pageCount(doc));
+                for (int p = 0; p < pages.size(); p++) assertEquals(pages.get(p), corpus.pageText(doc, p));
+            }
+        }
+    }
+
+    @Test
+    void savingAgainReplacesTheSnapshot() throws IOException {
+        Path file = dir.resolve("session.dtxw");
+        WorkspaceSnapshot.save(file, Map.of("a.pdf", Set.of("graph")), Map.of("graph", 1), Map.of(), PAGES::get);
+        WorkspaceSnapshot.save(file, Map.of("unplaced.pdf", Set.of()), Map.of(), Map.of(), PAGES::get);
+
+        try (WorkspaceSnapshot.Workspace ws = WorkspaceSnapshot.open(file)) {
+            assertEquals(Set.of("unplaced.pdf"), ws.documentKeywords().keySet());
+            assertEquals(List.of("unplaced.pdf"), ws.corpus().documentNames());
+        }
+        assertEquals(List.of(file), listFiles());
+    }
+
+    @Test
+    void failedSaveKeepsThePreviousSnapshot() throws IOException {
+        Path file = dir.resolve("session.dtxw");
+        WorkspaceSnapshot.save(file, Map.of("a.pdf", Set.of("graph")), Map.of("graph", 1), Map.of(), PAGES::get);
+        byte[] saved = Files.readAllBytes(file);
+
+        IOException failure = new IOException("text unavailable");
+        IOException thrown = assertThrows(IOException.class, () -> WorkspaceSnapshot.save(file,
+                Map.of("b.pdf", Set.of()), Map.of(), Map.of(), name -> { throw failure; }));
+
+        assertSame(failure, thrown);
+        assertArrayEquals(saved, Files.readAllBytes(file));
+        assertEquals(List.of(file), listFiles());
+    }
+
+    @Test
+    void damagedFilesAreReportedAsIOException() throws IOException {
+        Path file = dir.resolve("session.dtxw");
+        WorkspaceSnapshot.save(file, Map.of("a.pdf", Set.of("graph")), Map.of("graph", 1),
+                Map.of("a.pdf", new WorkspaceSnapshot.Position(1, 2)), PAGES::get);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path notAWorkspace = Files.writeString(dir.resolve("notes.dtxw"), "hello, world");
+        IOException e = assertThrows(IOException.class, () -> WorkspaceSnapshot.open(notAWorkspace));
+        assertTrue(e.getMessage().startsWith("Not a DeTextion workspace"), e.getMessage());
+
+        for (int length : new int[] { 0, 10, 30, bytes.length - 8 }) {
+            Path cut = Files.write(dir.resolve("cut-" + length + ".dtxw"), Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> WorkspaceSnapshot.open(cut).close(), "length " + length);
+        }
+
+        // a.pdf's keyword count, after the preamble, the document count and the name, set to -1
+        byte[] corrupt = bytes.clone();
+        Arrays.fill(corrupt, 12 + 4 + 2 + "a.pdf".length(), 12 + 4 + 2 + "a.pdf".length() + 4, (byte) 0xFF);
+        Path negative = Files.write(dir.resolve("negative.dtxw"), corrupt);
+        assertThrows(IOException.class, () -> WorkspaceSnapshot.open(negative).close());
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+}
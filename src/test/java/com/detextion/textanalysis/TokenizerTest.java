@@ -0,0 +1,103 @@
+package com.detextion.textanalysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Word boundaries, case folding and term filtering of {@link Tokenizer} across scripts. */
+class TokenizerTest {
+
+    private static final Tokenizer ROOT = Tokenizer.of(Locale.ROOT, "en");
+    private static final Tokenizer TURKISH = Tokenizer.of(Locale.forLanguageTag("tr"), "en");
+
+    @Test
+    void asciiWordsDigitsAndUnderscores() {
+        assertEquals(List.of("graph", "layouts", "for", "neural", "networks", "snake_case", "v2", "2024"),
+                ROOT.words("Graph LAYOUTS for Neural-networks: snake_case, v2 (2024)."));
+        assertEquals(List.of(), ROOT.words(" \t.,;-- "));
+    }
+
+    @Test
+    void accentedWordsStayWhole() {
+        assertEquals(List.of("straße", "élève", "naïve", "ærø", "café", "crème"),
+                ROOT.words("Straße, Élève & naïve! Ærø-Café «crème»"));
+    }
+
+    @Test
+    void combiningMarksAreComposed() {
+        // "Élève naïve" spelled with combining accents comes out as the precomposed words
+        assertEquals(List.of("\u00e9l\u00e8ve", "na\u00efve"), ROOT.words("E\u0301le\u0300ve nai\u0308ve"));
+        assertEquals(List.of("\u0161\u0165astn\u00fd"), ROOT.words("S\u030Ct\u030Castny\u0301"));
+    }
+
+    @Test
+    void turkishDottedAndDotlessI() {
+        assertEquals(List.of("ıstanbul", "ığdır", "izmir"), TURKISH.words("ISTANBUL Iğdır İzmir"));
+        assertEquals(List.of("istanbul"), ROOT.words("ISTANBUL"));
+
+        // Upper-case ASCII does not lower-case letter by letter in Turkish, so it is not offered as ASCII
+        assertFalse(cursorAt(TURKISH, "IBM").isAscii());
+        assertTrue(cursorAt(TURKISH, "ibm").isAscii());
+        assertTrue(cursorAt(ROOT, "IBM").isAscii());
+        assertFalse(cursorAt(ROOT, "café").isAscii());
+    }
+
+    @Test
+    void unspacedScriptsComeOutAsBigrams() {
+        assertEquals(List.of("自然", "然言", "言語"), ROOT.words("自然言語"));
+        assertEquals(List.of("言語", "語学"), ROOT.words("言語学"));
+        assertEquals(List.of("本"), ROOT.words("本"));
+        // the long-vowel mark continues a katakana run; the ideographic full stop ends one
+        assertEquals(List.of("コー", "ーヒ", "ヒー", "日本", "本語"), ROOT.words("コーヒー。日本語"));
+        // a Thai vowel sign stays on the consonant it marks
+        assertEquals(List.of("กิน"), ROOT.words("กิน"));
+    }
+
+    @Test
+    void scriptsMixWithinAndBetweenWords() {
+        assertEquals(List.of("deep", "学習", "model", "straße", "本"), ROOT.words("Deep学習model Straße本"));
+        assertEquals(List.of("привет", "мир", "γειά"), ROOT.words("Привет, мир! Γειά"));
+    }
+
+    @Test
+    void cursorReportsWhereEachWordSits() {
+        String text = "  Hello, wörld 自然言語";
+        List<String> spans = new ArrayList<>();
+        for (Tokenizer.Cursor t = ROOT.tokens(text); t.next(); )
+            spans.add(t.term() + "@" + t.start() + "-" + t.end());
+        assertEquals(List.of("hello@2-7", "wörld@9-14", "自然@15-17", "然言@16-18", "言語@17-19"), spans);
+    }
+
+    @Test
+    void termsSkipStopwordsShortWordsAndLoneCharacters() {
+        assertTrue(ROOT.isStopWord("the"));
+        assertFalse(ROOT.isTerm("the"));
+        assertFalse(ROOT.isTerm("about"));
+        assertFalse(ROOT.isTerm("map"));
+        assertTrue(ROOT.isTerm("graph"));
+        assertTrue(ROOT.isTerm("自然"));
+        assertFalse(ROOT.isTerm("本"));
+        assertFalse(ROOT.isTerm(""));
+    }
+
+    @Test
+    void stopwordListsAreOnlyUnionedOnRequest() {
+        for (String word : List.of("dies", "sans", "ante")) {
+            assertFalse(ROOT.isStopWord(word), word);
+            assertTrue(ROOT.isTerm(word), word);
+        }
+        Tokenizer european = Tokenizer.of(Locale.ROOT, "en", "de", "fr", "es");
+        for (String word : List.of("the", "dies", "sans", "ante")) assertFalse(european.isTerm(word), word);
+        assertThrows(IllegalArgumentException.class, () -> Tokenizer.of(Locale.ROOT, "xx"));
+    }
+
+    private static Tokenizer.Cursor cursorAt(Tokenizer tokenizer, String word) {
+        Tokenizer.Cursor t = tokenizer.tokens(word);
+        assertTrue(t.next());
+        return t;
+    }
+}